@@ -3,6 +3,7 @@ import logic.Board;
 import logic.BoardPrinter;
 import logic.GameSession;
 import logic.Notation;
+import logic.Perft;
 import objects.PromotionChoice;
 
 public class MainConsole {
@@ -67,6 +68,25 @@ public class MainConsole {
                         if (!session.redo()) System.out.println("⚠️  No move to redo.");
                         BoardPrinter.print(board);
                     }
+                    case "perft", "divide" -> {
+                        int depth = 4;
+                        try {
+                            if (parts.length > 1) depth = Integer.parseInt(parts[1]);
+                        } catch (NumberFormatException nfe) {
+                            System.out.println("Invalid depth. Example: perft 4");
+                            continue;
+                        }
+                        if (cmd.equals("divide")) {
+                            Perft.divide(board, session.getCurrentTurn(), depth, System.out);
+                        } else {
+                            long start = System.nanoTime();
+                            long nodes = Perft.perft(board, session.getCurrentTurn(), depth);
+                            double secs = (System.nanoTime() - start) / 1e9;
+                            System.out.printf("perft(%d) = %d  (%.3f s, %,.0f nodes/s)%n",
+                                    depth, nodes, secs, nodes / Math.max(secs, 1e-9));
+                        }
+                    }
+                    case "bench" -> Perft.runSuite(Integer.MAX_VALUE, System.out);
                     default -> handledCommand = false; // not a command; try to parse as a move
                 }
                 if (handledCommand) continue;
@@ -117,6 +137,9 @@ public class MainConsole {
               p / print     - show the current board
               u / undo      - undo last move
               r / redo      - redo last undone move
+              perft N       - count legal move-tree leaves to depth N
+              divide N      - perft N split by root move
+              bench         - run the perft reference suite
               h / help      - show this help message
               q / quit      - exit the game
 
@@ -0,0 +1,222 @@
+package logic;
+
+import java.util.SplittableRandom;
+import objects.PieceColor;
+
+/**
+ * Attacks : precomputed attack masks for every piece type, indexed by square (row * 8 + col).
+ *
+ * Knight, king and pawn attacks are plain per-square tables. Rook and bishop attacks use
+ * "fancy" magic bitboards: the relevant blockers of the occupancy are multiplied by a magic
+ * number and shifted into an index of a shared table, so a sliding attack is one lookup.
+ * The magics below were found for this board's a8 = 0 layout (published magics assume
+ * a1 = 0); if one ever fails to verify, a replacement is searched with a fixed seed.
+ * {@link #INIT_NANOS} records how long building everything took.
+ */
+public final class Attacks {
+    private Attacks() {}
+
+    public static final long[] KNIGHT = new long[64];
+    public static final long[] KING   = new long[64];
+    /** PAWN[color][sq]: squares attacked by a pawn of that color standing on sq. */
+    public static final long[][] PAWN = new long[2][64];
+    /** BETWEEN[a][b]: squares strictly between a and b on a shared line, else 0. */
+    public static final long[][] BETWEEN = new long[64][64];
+    /** LINE[a][b]: the full line through a and b (both included), else 0. */
+    public static final long[][] LINE = new long[64][64];
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] ROOK_MAGIC = {
+            0x4A8002207080C000L, 0x2040002000401001L, 0x0280200010008288L, 0x4200040A00102040L,
+            0x0200020020041009L, 0x0A00044110420008L, 0x3200080081020004L, 0x0100008100104022L,
+            0x0018800080204000L, 0x0000808040002000L, 0x0904801002802008L, 0x0023002010000B00L,
+            0x0001802400080080L, 0x1000800200040080L, 0x4001010004010200L, 0x8041000100004082L,
+            0x0820008080004000L, 0x00100140002001C0L, 0x1010008010200088L, 0x0000230009001000L,
+            0x0104110005080100L, 0x0002008004008002L, 0x2000040008100281L, 0x04000E00034C0091L,
+            0x0000400280008020L, 0x0070004240002000L, 0x0010100080802000L, 0x0008008280100109L,
+            0x2404040080800800L, 0x0206010180800400L, 0x0418210400028870L, 0x8008008200010044L,
+            0x000240008180002EL, 0x2104421102002081L, 0x1000809001802000L, 0x1020100009002100L,
+            0x0004000480800800L, 0x0500800200800400L, 0x2000800100800200L, 0x480001008200284CL,
+            0x0000800140018020L, 0x0020400020008080L, 0x0A10002000410100L, 0x00020042100A0020L,
+            0x0002050008010010L, 0xA00200300C060008L, 0x4000104201040008L, 0x4001000084490032L,
+            0x0100208100420200L, 0x0000401000200840L, 0x3038801006E00080L, 0x0040220208401200L,
+            0x0800040080080080L, 0x8304010002004040L, 0x1428110208300C00L, 0x10000040A4110200L,
+            0x0100190020800041L, 0x0801012148801202L, 0x1026C01100882001L, 0x00A0100044A10109L,
+            0x0009001082040801L, 0x00A20028010C1016L, 0x01000820C1021004L, 0x0009148104284402L
+    };
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] ROOK_OFFSET = new int[64];
+    private static final long[] ROOK_TABLE = new long[0x19000];   // 102400 entries
+
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final long[] BISHOP_MAGIC = {
+            0x0020028202042600L, 0xA008108082004010L, 0x8242020841001008L, 0x0204104202C00880L,
+            0x1801104192154000L, 0x0001010940410000L, 0x0004008250104002L, 0x0000220104200200L,
+            0x0040102428080450L, 0x8004042802004209L, 0x0050045842004000L, 0x0400040426810784L,
+            0x00400C10C4400620L, 0x0003021210440188L, 0x0080026212202048L, 0x0000020882080204L,
+            0x03F0110960080280L, 0x4091000202020400L, 0x1204081884040028L, 0x0804005241020100L,
+            0x0410120202101030L, 0x2001001A00520222L, 0x4100812128080208L, 0x2800401108480401L,
+            0x08040500C0100400L, 0x02412000C5082200L, 0x0080300A080C4040L, 0x082400440C010082L,
+            0x4001001045004004L, 0x930600802408A005L, 0x000100482C0404A0L, 0x0002020030210108L,
+            0x0242A01000A08222L, 0xC282022002D0C100L, 0xE804042080040101L, 0x0003400808208200L,
+            0x42040040100C0100L, 0xB0028B0200090096L, 0x2410008204008238L, 0x8848020851068240L,
+            0x042C248444284000L, 0x1008553030000800L, 0x0000084048001020L, 0x020040A124080801L,
+            0x001014010C008200L, 0x0002008502002304L, 0x1004084801000050L, 0x8002040410820020L,
+            0x81420110194C1008L, 0x0201008219204021L, 0x144A004404040022L, 0x0D00600041108200L,
+            0x2200216104340080L, 0x0218404284011008L, 0x4007100411140000L, 0x6120410401004200L,
+            0x0006004042101102L, 0x40007E089208020BL, 0x1191004080580801L, 0x0000184800840402L,
+            0x8100280040314104L, 0x0000600890300088L, 0x1000212004908484L, 0x031001080B034208L
+    };
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final int[] BISHOP_OFFSET = new int[64];
+    private static final long[] BISHOP_TABLE = new long[0x1480];  // 5248 entries
+
+    private static final int[][] ROOK_DIRS   = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    /** Time spent building all tables at class init, in nanoseconds. */
+    public static final long INIT_NANOS;
+
+    static {
+        long start = System.nanoTime();
+        initLeapers();
+        SplittableRandom rnd = new SplittableRandom(0xB17B0A4DL);
+        initSliders(ROOK_DIRS, ROOK_MASK, ROOK_MAGIC, ROOK_SHIFT, ROOK_OFFSET, ROOK_TABLE, rnd);
+        initSliders(BISHOP_DIRS, BISHOP_MASK, BISHOP_MAGIC, BISHOP_SHIFT, BISHOP_OFFSET, BISHOP_TABLE, rnd);
+        initLines();
+        INIT_NANOS = System.nanoTime() - start;
+    }
+
+    // ---------- Lookups ----------
+    public static long rook(int sq, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSET[sq] + (int) (((occupied & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    public static long bishop(int sq, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSET[sq] + (int) (((occupied & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    public static long queen(int sq, long occupied) {
+        return rook(sq, occupied) | bishop(sq, occupied);
+    }
+
+    public static long pawn(PieceColor color, int sq) {
+        return PAWN[color.ordinal()][sq];
+    }
+
+    // ---------- Table construction ----------
+    private static void initLeapers() {
+        int[][] knight = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        int[][] king   = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >> 3, c = sq & 7;
+            for (int[] o : knight) KNIGHT[sq] |= bit(r + o[0], c + o[1]);
+            for (int[] o : king)   KING[sq]   |= bit(r + o[0], c + o[1]);
+            // white pawns move towards row 0, black pawns towards row 7
+            PAWN[PieceColor.WHITE.ordinal()][sq] = bit(r - 1, c - 1) | bit(r - 1, c + 1);
+            PAWN[PieceColor.BLACK.ordinal()][sq] = bit(r + 1, c - 1) | bit(r + 1, c + 1);
+        }
+    }
+
+    private static void initSliders(int[][] dirs, long[] masks, long[] magics, int[] shifts, int[] offsets,
+                                    long[] table, SplittableRandom rnd) {
+        int offset = 0;
+        long[] occ = new long[4096];
+        long[] ref = new long[4096];
+        int[] epoch = new int[4096];
+        int attempt = 0;
+
+        for (int sq = 0; sq < 64; sq++) {
+            long mask = relevantMask(sq, dirs);
+            int bits = Long.bitCount(mask);
+            int size = 1 << bits;
+            masks[sq] = mask;
+            shifts[sq] = 64 - bits;
+            offsets[sq] = offset;
+
+            // enumerate every blocker subset of the mask (Carry-Rippler) with its attack set
+            long subset = 0;
+            for (int i = 0; i < size; i++) {
+                occ[i] = subset;
+                ref[i] = slide(sq, subset, dirs);
+                subset = (subset - mask) & mask;
+            }
+
+            // verify the stored magic; if it collides, try sparse random ones until one fits
+            long magic = magics[sq];
+            while (true) {
+                attempt++;
+                boolean ok = true;
+                for (int i = 0; i < size && ok; i++) {
+                    int idx = (int) ((occ[i] * magic) >>> shifts[sq]);
+                    if (epoch[idx] < attempt) {
+                        epoch[idx] = attempt;
+                        table[offset + idx] = ref[i];
+                    } else if (table[offset + idx] != ref[i]) {
+                        ok = false;
+                    }
+                }
+                if (ok) {
+                    magics[sq] = magic;
+                    break;
+                }
+                do {
+                    magic = rnd.nextLong() & rnd.nextLong() & rnd.nextLong();
+                } while (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6);
+            }
+            offset += size;
+        }
+    }
+
+    private static void initLines() {
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) continue;
+                long bbA = 1L << a, bbB = 1L << b;
+                if ((rook(a, 0) & bbB) != 0) {
+                    BETWEEN[a][b] = rook(a, bbB) & rook(b, bbA);
+                    LINE[a][b] = (rook(a, 0) & rook(b, 0)) | bbA | bbB;
+                } else if ((bishop(a, 0) & bbB) != 0) {
+                    BETWEEN[a][b] = bishop(a, bbB) & bishop(b, bbA);
+                    LINE[a][b] = (bishop(a, 0) & bishop(b, 0)) | bbA | bbB;
+                }
+            }
+        }
+    }
+
+    // blockers that matter for sq: each ray without its final edge square
+    private static long relevantMask(int sq, int[][] dirs) {
+        long mask = 0;
+        for (int[] d : dirs) {
+            int r = (sq >> 3) + d[0], c = (sq & 7) + d[1];
+            while (inside(r + d[0], c + d[1])) {
+                mask |= 1L << (r * 8 + c);
+                r += d[0]; c += d[1];
+            }
+        }
+        return mask;
+    }
+
+    // slow reference slider, only used while building the tables
+    private static long slide(int sq, long occupied, int[][] dirs) {
+        long attacks = 0;
+        for (int[] d : dirs) {
+            int r = (sq >> 3) + d[0], c = (sq & 7) + d[1];
+            while (inside(r, c)) {
+                long b = 1L << (r * 8 + c);
+                attacks |= b;
+                if ((occupied & b) != 0) break;
+                r += d[0]; c += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long bit(int r, int c) {
+        return inside(r, c) ? 1L << (r * 8 + c) : 0L;
+    }
+
+    private static boolean inside(int r, int c) {
+        return r >= 0 && r < 8 && c >= 0 && c < 8;
+    }
+}
@@ -1,6 +1,7 @@
 package logic;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import objects.*;
 
@@ -19,13 +20,46 @@ public class Board {
     public void setPromotionSelector(PromotionSelector selector) {
         this.promotionSelector = selector;
     }
+    public PromotionSelector getPromotionSelector() {
+        return promotionSelector;
+    }
 
     // ====== board state ======
     private static final int SIZE = 8;
     private final Piece[][] squares = new Piece[SIZE][SIZE];
 
+    // ====== bitboards (kept in sync with squares by setPieceAt) ======
+    // Square index = row * 8 + col, so a8 = 0 and h1 = 63 (same orientation as squares).
+    // Piece code = color.ordinal() * 6 + type.ordinal(); EMPTY marks a free square.
+    public static final int EMPTY = -1;
+    private static final PieceType[] TYPES = PieceType.values();
+    private static final PieceColor[] COLORS = PieceColor.values();
+    private static final int KING = PieceType.KING.ordinal();
+    private static final int PAWN = PieceType.PAWN.ordinal();
+
+    private final long[] pieceBB = new long[12];  // one occupancy mask per color/type
+    private final long[] colorBB = new long[2];   // all pieces of one color
+    private long occupied;                        // all pieces
+    private final int[] codes = new int[SIZE * SIZE];
+    private long zobrist;                         // incremental position key (pieces only)
+    private long pawnKey;                         // same, restricted to pawns
+
+    // ====== evaluation sums (also kept in sync by setPieceAt) ======
+    // White-minus-Black totals of PieceSquareTables, plus the remaining non-pawn phase.
+    private int psqMg, psqEg, phase;
+
+    // ====== piece lists (also kept in sync by setPieceAt) ======
+    // Squares of each color's pieces in no particular order; removal swaps in the last entry.
+    private final int[][] pieceList = new int[2][SIZE * SIZE];
+    private final int[] pieceCount = new int[2];
+    private final int[] listIndex = new int[SIZE * SIZE];   // slot of a square in its color's list
+    private final int[] kingSquare = {-1, -1};
+
     /** Constructor: initializes the board to the standard starting position.    */
-    public Board() { resetToStandard(); }
+    public Board() {
+        Arrays.fill(codes, EMPTY);
+        resetToStandard();
+    }
 
     /** Resets the board to the standard starting position. */
     public final void resetToStandard() {
@@ -74,12 +108,115 @@ public class Board {
     /** Setter for piece at (r,c) */
     public void setPieceAt(int r, int c, Piece p) {
         if (!inBounds(r, c)) return;
+        int sq = r * SIZE + c;
+        if (codes[sq] != EMPTY) removeBits(sq, codes[sq]);
         squares[r][c] = p;
-        if (p != null) p.setPosition(r, c);
+        if (p != null) {
+            p.setPosition(r, c);
+            addBits(sq, code(p.getColor(), p.getType()));
+        }
     }
 
     public void clearSquare(int r, int c) {
-        if (inBounds(r, c)) squares[r][c] = null;
+        setPieceAt(r, c, null);
+    }
+
+    // ---------- Bitboard access ----------
+    /** Piece code for a color/type pair (0..11). */
+    public static int code(PieceColor color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    public static PieceColor colorOf(int code) { return COLORS[code / 6]; }
+    public static PieceType  typeOf(int code)  { return TYPES[code % 6]; }
+
+    /** Piece code on square index sq (0..63), or EMPTY. */
+    public int pieceCodeAt(int sq) { return codes[sq]; }
+
+    /** Occupancy mask of all pieces of the given color and type. */
+    public long pieces(PieceColor color, PieceType type) { return pieceBB[code(color, type)]; }
+
+    /** Occupancy mask of all pieces of the given color. */
+    public long pieces(PieceColor color) { return colorBB[color.ordinal()]; }
+
+    /** Occupancy mask of all pieces on the board. */
+    public long occupancy() { return occupied; }
+
+    /** Number of pieces of the given color on the board. */
+    public int pieceCount(PieceColor color) { return pieceCount[color.ordinal()]; }
+
+    /**
+     * Square index of the i-th piece of the given color (0 <= i < pieceCount).
+     * The list order changes when pieces are added or removed, so do not mutate
+     * the board while iterating.
+     */
+    public int pieceSquare(PieceColor color, int i) { return pieceList[color.ordinal()][i]; }
+
+    /** Square index of the given color's king, or -1 if there is none. */
+    public int kingSquare(PieceColor color) { return kingSquare[color.ordinal()]; }
+
+    /**
+     * 64-bit Zobrist key of the piece placement, updated on every change.
+     * Does not include the side to move; see {@link GameSession#positionKey()}.
+     */
+    public long zobristKey() { return zobrist; }
+
+    /**
+     * Zobrist key of the pawns alone (same keys as {@link #zobristKey()}); changes only on
+     * pawn moves, pawn captures and promotions, so it indexes pawn-structure caches.
+     */
+    public long pawnKey() { return pawnKey; }
+
+    /**
+     * Material plus piece-square score from White's point of view, blended between the
+     * middlegame and endgame tables by the remaining material. O(1): the sums are kept
+     * up to date on every change.
+     */
+    public int pstScore() { return PieceSquareTables.taper(psqMg, psqEg, phase); }
+
+    /** Game phase: 24 with all pieces on the board, 0 with only kings and pawns. */
+    public int phase() { return phase; }
+
+    private void addBits(int sq, int code) {
+        long bit = 1L << sq;
+        pieceBB[code] |= bit;
+        colorBB[code / 6] |= bit;
+        occupied |= bit;
+        codes[sq] = code;
+        zobrist ^= Zobrist.PIECE[code][sq];
+        if (code % 6 == PAWN) pawnKey ^= Zobrist.PIECE[code][sq];
+        psqMg += PieceSquareTables.MG[code][sq];
+        psqEg += PieceSquareTables.EG[code][sq];
+        phase += PieceSquareTables.PHASE[code];
+
+        int color = code / 6;
+        int slot = pieceCount[color]++;
+        pieceList[color][slot] = sq;
+        listIndex[sq] = slot;
+        if (code % 6 == KING) kingSquare[color] = sq;
+    }
+
+    private void removeBits(int sq, int code) {
+        long bit = ~(1L << sq);
+        pieceBB[code] &= bit;
+        colorBB[code / 6] &= bit;
+        occupied &= bit;
+        codes[sq] = EMPTY;
+        zobrist ^= Zobrist.PIECE[code][sq];
+        if (code % 6 == PAWN) pawnKey ^= Zobrist.PIECE[code][sq];
+        psqMg -= PieceSquareTables.MG[code][sq];
+        psqEg -= PieceSquareTables.EG[code][sq];
+        phase -= PieceSquareTables.PHASE[code];
+
+        int color = code / 6;
+        int last = pieceList[color][--pieceCount[color]];
+        int slot = listIndex[sq];
+        pieceList[color][slot] = last;
+        listIndex[last] = slot;
+        if (code % 6 == KING && kingSquare[color] == sq) {
+            long kings = pieceBB[code];
+            kingSquare[color] = (kings == 0) ? -1 : Long.numberOfTrailingZeros(kings);
+        }
     }
 
     /**
@@ -116,6 +253,65 @@ public class Board {
         return captured;
     }
 
+    // ---------- Make / unmake ----------
+    // Trial moves for rules checks and search. makeMove returns a primitive undo record:
+    //   bits 0-5 from square, bits 6-11 to square, bit 12 set when the move promoted.
+    // The captured piece (and the original pawn on promotion) are kept on a small
+    // internal stack, so make/unmake pairs must be strictly nested (LIFO).
+    private static final int UNDO_PROMOTION = 1 << 12;
+    private Piece[] undoPieces = new Piece[256];
+    private int undoTop = 0;
+
+    /**
+     * Plays (sr,sc)->(er,ec) in place without validation and returns an undo record
+     * for {@link #unmakeMove(int)}. Promotions always become a queen here; the
+     * promotion selector is only consulted by {@link #movePiece}.
+     */
+    public int makeMove(int sr, int sc, int er, int ec) {
+        return makeMove(Move.of(sr * SIZE + sc, er * SIZE + ec));
+    }
+
+    /**
+     * Plays a packed {@link Move} in place without validation and returns an undo record
+     * for {@link #unmakeMove(int)}. A pawn reaching the last rank becomes the move's
+     * promotion piece, or a queen when the move carries none.
+     */
+    public int makeMove(int move) {
+        int from = Move.from(move), to = Move.to(move);
+        int sr = from >> 3, sc = from & 7, er = to >> 3, ec = to & 7;
+        Piece moving = squares[sr][sc];
+        pushUndo(squares[er][ec]);
+
+        setPieceAt(sr, sc, null);
+        setPieceAt(er, ec, moving);
+
+        int undo = from | (to << 6);
+        if (moving instanceof Pawn pawn && pawn.canPromote(er)) {
+            pushUndo(moving);
+            PieceType promo = Move.promotion(move);
+            setPieceAt(er, ec, createPiece(promo == null ? PieceType.QUEEN : promo, pawn.getColor(), er, ec));
+            undo |= UNDO_PROMOTION;
+        }
+        return undo;
+    }
+
+    /** Restores the position from before the matching {@link #makeMove} call. */
+    public void unmakeMove(int undo) {
+        int from = undo & 63;
+        int to = (undo >>> 6) & 63;
+        Piece moved = ((undo & UNDO_PROMOTION) != 0) ? undoPieces[--undoTop] : squares[to >> 3][to & 7];
+        Piece captured = undoPieces[--undoTop];
+        undoPieces[undoTop] = null;
+
+        setPieceAt(to >> 3, to & 7, captured);
+        setPieceAt(from >> 3, from & 7, moved);
+    }
+
+    private void pushUndo(Piece p) {
+        if (undoTop == undoPieces.length) undoPieces = Arrays.copyOf(undoPieces, undoTop * 2);
+        undoPieces[undoTop++] = p;
+    }
+
     // ---------- Deep copy ----------
     // Creates a deep copy of the board and all its pieces
     // use in GameSession's undo/redo and Rules checks
@@ -147,37 +343,34 @@ public class Board {
     }
 
     private static Piece clonePiece(Piece p) {
-        return switch (p.getType()) {
-            case PAWN   -> new Pawn  (p.getColor(), p.getX(), p.getY());
-            case ROOK   -> new Rook  (p.getColor(), p.getX(), p.getY());
-            case KNIGHT -> new Knight(p.getColor(), p.getX(), p.getY());
-            case BISHOP -> new Bishop(p.getColor(), p.getX(), p.getY());
-            case QUEEN  -> new Queen (p.getColor(), p.getX(), p.getY());
-            case KING   -> new King  (p.getColor(), p.getX(), p.getY());
+        return createPiece(p.getType(), p.getColor(), p.getX(), p.getY());
+    }
+
+    static Piece createPiece(PieceType type, PieceColor color, int r, int c) {
+        return switch (type) {
+            case PAWN   -> new Pawn  (color, r, c);
+            case ROOK   -> new Rook  (color, r, c);
+            case KNIGHT -> new Knight(color, r, c);
+            case BISHOP -> new Bishop(color, r, c);
+            case QUEEN  -> new Queen (color, r, c);
+            case KING   -> new King  (color, r, c);
         };
     }
 
     // ---------- Helper methods for Rules.java ----------
+    // Allocates a fresh list; hot paths should use pieceCount/pieceSquare instead.
     public List<Piece> getPiecesByColor(PieceColor color) {
-        List<Piece> list = new ArrayList<>();
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                Piece p = squares[r][c];
-                if (p != null && p.getColor() == color) list.add(p);
-            }
+        int n = pieceCount(color);
+        List<Piece> list = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int sq = pieceSquare(color, i);
+            list.add(squares[sq >> 3][sq & 7]);
         }
         return list;
     }
 
     public int[] findKing(PieceColor color) {
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                Piece p = squares[r][c];
-                if (p != null && p.getColor() == color && p.getType() == PieceType.KING) {
-                    return new int[]{r, c};
-                }
-            }
-        }
-        return null; 
+        int sq = kingSquare(color);
+        return (sq < 0) ? null : new int[]{sq >> 3, sq & 7};
     }
 }
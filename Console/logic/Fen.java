@@ -0,0 +1,78 @@
+package logic;
+
+import objects.*;
+
+/**
+ * Fen : reads and writes the piece-placement and side-to-move fields of FEN strings.
+ * Castling, en passant and move counters are accepted but ignored, since this engine
+ * does not implement those rules.
+ */
+public final class Fen {
+    private Fen() {}
+
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+    /**
+     * Replaces the contents of {@code board} with the given position.
+     * @return the side to move
+     * @throws IllegalArgumentException if the placement field is malformed
+     */
+    public static PieceColor load(Board board, String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        String[] rows = fields[0].split("/");
+        if (rows.length != 8) throw new IllegalArgumentException("FEN needs 8 ranks: " + fen);
+
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) board.setPieceAt(r, c, null);
+        }
+        for (int r = 0; r < 8; r++) {
+            int c = 0;
+            for (char ch : rows[r].toCharArray()) {
+                if (Character.isDigit(ch)) {
+                    c += ch - '0';
+                    continue;
+                }
+                if (c > 7) throw new IllegalArgumentException("Rank too long: " + rows[r]);
+                PieceColor color = Character.isUpperCase(ch) ? PieceColor.WHITE : PieceColor.BLACK;
+                board.setPieceAt(r, c, Board.createPiece(typeOf(ch), color, r, c));
+                c++;
+            }
+            if (c != 8) throw new IllegalArgumentException("Rank has " + c + " files: " + rows[r]);
+        }
+        return (fields.length > 1 && fields[1].equalsIgnoreCase("b")) ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+
+    /** FEN of the position with dummy castling/en passant/counter fields. */
+    public static String toFen(Board board, PieceColor toMove) {
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < 8; r++) {
+            int empty = 0;
+            for (int c = 0; c < 8; c++) {
+                Piece p = board.getPieceAt(r, c);
+                if (p == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) sb.append(empty);
+                empty = 0;
+                sb.append(p.toString());
+            }
+            if (empty > 0) sb.append(empty);
+            if (r < 7) sb.append('/');
+        }
+        sb.append(toMove == PieceColor.WHITE ? " w" : " b").append(" - - 0 1");
+        return sb.toString();
+    }
+
+    private static PieceType typeOf(char ch) {
+        return switch (Character.toLowerCase(ch)) {
+            case 'p' -> PieceType.PAWN;
+            case 'n' -> PieceType.KNIGHT;
+            case 'b' -> PieceType.BISHOP;
+            case 'r' -> PieceType.ROOK;
+            case 'q' -> PieceType.QUEEN;
+            case 'k' -> PieceType.KING;
+            default  -> throw new IllegalArgumentException("Unknown piece letter: " + ch);
+        };
+    }
+}
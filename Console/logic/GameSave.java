@@ -17,6 +17,9 @@ public class GameSave implements Serializable {
     private boolean gameOver;
     private Date saveDate;
     private String saveName;
+    // Moves from the standard start position (compact Move ints); null in saves made before
+    // move lists were recorded, or when the game did not start from the initial position
+    private int[] moves;
     
     // Constructor for saving current game state
     public GameSave(GameSession gameSession, String saveName) {
@@ -24,6 +27,7 @@ public class GameSave implements Serializable {
         this.saveDate = new Date();
         this.currentTurn = gameSession.getCurrentTurn().name();
         this.gameOver = gameSession.isGameOver();
+        this.moves = gameSession.isHistoryFromStart() ? gameSession.getMoveHistory() : null;
         this.boardState = new String[8][8];
         
         // Convert board to serializable format
@@ -114,6 +118,7 @@ public class GameSave implements Serializable {
         gameSession.setCurrentTurn(PieceColor.valueOf(currentTurn));
         gameSession.setGameOver(gameOver);
         gameSession.clearHistory(); // Clear undo/redo history for loaded game
+        if (moves != null) gameSession.setMoveHistory(moves, true);
     }
     
     // Helper method to create piece instances
@@ -154,4 +159,6 @@ public class GameSave implements Serializable {
     public Date getSaveDate() { return saveDate; }
     public String getCurrentTurn() { return currentTurn; }
     public boolean isGameOver() { return gameOver; }
+    /** Moves from the initial position, or null if the save has none. */
+    public int[] getMoves() { return moves; }
 }
\ No newline at end of file
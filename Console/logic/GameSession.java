@@ -1,9 +1,14 @@
 package logic;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.List;
+import objects.Pawn;
 import objects.Piece;
 import objects.PieceColor;
+import objects.PieceType;
+import objects.PromotionChoice;
 
 /** Manages a game session: board state, turn order, move history, and post-move evaluation. */
 public class GameSession {
@@ -15,6 +20,12 @@ public class GameSession {
     private final Deque<Board> undoStack = new ArrayDeque<>();
     private final Deque<Board> redoStack = new ArrayDeque<>();
 
+    // Moves played (compact Move ints), kept in step with undo/redo; used by saves and the book builder.
+    // historyFromStart is false once the position did not come from start() (e.g. a loaded old save).
+    private final List<Integer> moveHistory = new ArrayList<>();
+    private final Deque<Integer> redoMoves = new ArrayDeque<>();
+    private boolean historyFromStart = false;
+
     public GameSession(Board board) {
         this.board = board;
     }
@@ -26,12 +37,15 @@ public class GameSession {
         gameOver = false;
         undoStack.clear();
         redoStack.clear();
+        moveHistory.clear();
+        redoMoves.clear();
+        historyFromStart = true;
     }
 
     /**
      * Executes a move if legal:
      * 1) checks piece rule via Piece.canMove,
-     * 2) prevents self-check via trial board,
+     * 2) prevents self-check by matching against the legal move generator,
      * 3) performs the real move via Board.movePiece (handles promotion),
      * 4) evaluates check / checkmate / stalemate for the opponent,
      * 5) pushes state for undo/redo and flips the turn.
@@ -60,10 +74,10 @@ public class GameSession {
             return false;
         }
 
-        // Self-check prevention: simulate the move on a trial board
-        Board trial = board.deepCopy();
-        trial.movePiece(sr, sc, er, ec);
-        if (Rules.isInCheck(trial, currentTurn)) {
+        // Self-check prevention: the move must be among the fully legal moves
+        MoveList legal = new MoveList();
+        MoveGenerator.generateLegal(board, currentTurn, legal);
+        if (!legal.contains(Move.of(sr * 8 + sc, er * 8 + ec, promotionFor(moving, er)))) {
             System.out.println("Illegal move: your king would be in check.");
             return false;
         }
@@ -73,6 +87,10 @@ public class GameSession {
         redoStack.clear();
 
         Piece captured = board.movePiece(sr, sc, er, ec); // handles promotion internally
+        // record the promotion piece actually chosen
+        PieceType promoted = (promotionFor(moving, er) != null) ? board.getPieceAt(er, ec).getType() : null;
+        moveHistory.add(Move.of(sr * 8 + sc, er * 8 + ec, promoted));
+        redoMoves.clear();
         if (captured != null) {
             System.out.println(moving.getType() + " captured " + captured.getType());
         }
@@ -99,12 +117,38 @@ public class GameSession {
         return true;
     }
 
+    /**
+     * Plays a packed {@link Move} (e.g. one received over the network) like
+     * {@link #playMove(int, int, int, int)}; a promotion becomes the move's own piece
+     * instead of asking the board's promotion selector. A promotion to a pawn or king is
+     * illegal (false).
+     */
+    public boolean playMove(int move) {
+        int from = Move.from(move), to = Move.to(move);
+        PieceType promotion = Move.promotion(move);
+        if (promotion == null) return playMove(from >> 3, from & 7, to >> 3, to & 7);
+        if (promotion == PieceType.PAWN || promotion == PieceType.KING) return false; // not a promotion piece
+        Board.PromotionSelector selector = board.getPromotionSelector();
+        board.setPromotionSelector((color, r, c) -> PromotionChoice.valueOf(promotion.name()));
+        try {
+            return playMove(from >> 3, from & 7, to >> 3, to & 7);
+        } finally {
+            board.setPromotionSelector(selector);
+        }
+    }
+
+    // legal-list entries carry the promotion piece; any promotion shares legality with the queen one
+    private static PieceType promotionFor(Piece moving, int er) {
+        return (moving instanceof Pawn pawn && pawn.canPromote(er)) ? PieceType.QUEEN : null;
+    }
+
     /** Undo last move (if any). */
     public boolean undo() {
         if (undoStack.isEmpty()) return false;
         redoStack.push(board.deepCopy());
         Board prev = undoStack.pop();
         board.copyFrom(prev);
+        if (!moveHistory.isEmpty()) redoMoves.push(moveHistory.remove(moveHistory.size() - 1));
         gameOver = false; // conservative: recompute externally if you track gameOver strictly
         currentTurn = (currentTurn == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
         return true;
@@ -116,6 +160,7 @@ public class GameSession {
         undoStack.push(board.deepCopy());
         Board next = redoStack.pop();
         board.copyFrom(next);
+        if (!redoMoves.isEmpty()) moveHistory.add(redoMoves.pop());
         gameOver = false;
         currentTurn = (currentTurn == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
         return true;
@@ -125,6 +170,9 @@ public class GameSession {
     public PieceColor getCurrentTurn() { return currentTurn; }
     public Board getBoard() { return board; }
     public boolean isGameOver() { return gameOver; }
+
+    /** Position key including the side to move (board Zobrist key ^ side key). */
+    public long positionKey() { return board.zobristKey() ^ Zobrist.sideKey(currentTurn); }
     
     // Setters for save/load functionality
     public void setCurrentTurn(PieceColor turn) { this.currentTurn = turn; }
@@ -132,5 +180,31 @@ public class GameSession {
     public void clearHistory() { 
         undoStack.clear(); 
         redoStack.clear(); 
+        moveHistory.clear();
+        redoMoves.clear();
+        historyFromStart = false;
+    }
+
+    /** Moves played so far as compact {@link Move} ints (see {@link #isHistoryFromStart()}). */
+    public int[] getMoveHistory() {
+        int[] moves = new int[moveHistory.size()];
+        for (int i = 0; i < moves.length; i++) moves[i] = moveHistory.get(i);
+        return moves;
+    }
+
+    /** The last move played as a compact {@link Move} (with its promotion piece), or {@link Move#NONE}. */
+    public int getLastMove() {
+        return moveHistory.isEmpty() ? Move.NONE : moveHistory.get(moveHistory.size() - 1);
+    }
+
+    /** True if the move history starts at the standard initial position. */
+    public boolean isHistoryFromStart() { return historyFromStart; }
+
+    /** Restores the history of a loaded game (undo is not restored, only the move list). */
+    public void setMoveHistory(int[] moves, boolean fromStart) {
+        moveHistory.clear();
+        redoMoves.clear();
+        for (int m : moves) moveHistory.add(m);
+        historyFromStart = fromStart;
     }
 }
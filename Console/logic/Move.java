@@ -0,0 +1,78 @@
+package logic;
+
+import objects.PieceType;
+
+/**
+ * Move : packed int encoding shared by the move generator, rules, AI and network code.
+ *
+ * Layout (square = row * 8 + col):
+ *   bits  0-5   from square
+ *   bits  6-11  to square
+ *   bits 12-14  promotion piece (PieceType ordinal, 0 = none)
+ *   bits 15-17  captured piece (PieceType ordinal + 1, 0 = none)
+ *   bits 18-20  moving piece (PieceType ordinal)
+ *
+ * The low 15 bits (from, to, promotion) identify a move on its own and are what gets
+ * stored in the transposition table and the opening book; the upper bits are filled in by the
+ * generator so ordering code does not need to look at the board again.
+ */
+public final class Move {
+    private Move() {}
+
+    public static final int NONE = 0; // from == to == a8: never a real move
+
+    private static final PieceType[] TYPES = PieceType.values();
+
+    public static int of(int from, int to) {
+        return from | (to << 6);
+    }
+
+    public static int of(int from, int to, PieceType promotion) {
+        return of(from, to) | ((promotion == null ? 0 : promotion.ordinal()) << 12);
+    }
+
+    /** Full encoding with the capture/mover details the generator knows about. */
+    public static int of(int from, int to, int promotionOrdinal, int capturedOrdinal, int pieceOrdinal) {
+        return from | (to << 6) | (promotionOrdinal << 12) | ((capturedOrdinal + 1) << 15) | (pieceOrdinal << 18);
+    }
+
+    public static int from(int move) { return move & 63; }
+    public static int to(int move)   { return (move >>> 6) & 63; }
+
+    /** 15-bit identity of the move (from, to, promotion). */
+    public static int compact(int move) { return move & 0x7FFF; }
+
+    public static boolean isPromotion(int move) { return ((move >>> 12) & 7) != 0; }
+    public static boolean isCapture(int move)   { return ((move >>> 15) & 7) != 0; }
+
+    /** Promotion piece, or null. */
+    public static PieceType promotion(int move) {
+        int p = (move >>> 12) & 7;
+        return p == 0 ? null : TYPES[p];
+    }
+
+    /** Captured piece type, or null (only set on generated moves). */
+    public static PieceType captured(int move) {
+        int c = (move >>> 15) & 7;
+        return c == 0 ? null : TYPES[c - 1];
+    }
+
+    /** Moving piece type (only meaningful on generated moves). */
+    public static PieceType piece(int move) {
+        return TYPES[(move >>> 18) & 7];
+    }
+
+    /** {startRow, startCol, endRow, endCol} for the GUI-facing APIs. */
+    public static int[] toCoords(int move) {
+        int from = from(move), to = to(move);
+        return new int[]{from >> 3, from & 7, to >> 3, to & 7};
+    }
+
+    /** Coordinate notation such as "e2e4" or "e7e8q". */
+    public static String toString(int move) {
+        int from = from(move), to = to(move);
+        String s = Notation.toAlg(from >> 3, from & 7) + Notation.toAlg(to >> 3, to & 7);
+        PieceType promo = promotion(move);
+        return promo == null ? s : s + promo.symbol().toLowerCase();
+    }
+}
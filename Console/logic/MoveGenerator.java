@@ -0,0 +1,163 @@
+package logic;
+
+import objects.PieceColor;
+import objects.PieceType;
+
+/**
+ * MoveGenerator : emits the pseudo-legal moves of one side into a caller-supplied buffer.
+ * Only squares a piece can actually reach are produced (same rules as Piece.canMove),
+ * read from the {@link Attacks} tables, so callers no longer probe all 64 targets per
+ * piece. {@link #generate} is pseudo-legal (moves may leave the own king in check);
+ * {@link #generateLegal} returns only legal moves without trying them on the board.
+ *
+ * Moves are packed ints (see {@link Move}); pawn moves to the last rank are emitted
+ * once per promotion piece, queen first.
+ */
+public final class MoveGenerator {
+    private MoveGenerator() {}
+
+    /** Buffer size that is always large enough for one position. */
+    public static final int MAX_MOVES = 256;
+
+    private static final int PAWN   = PieceType.PAWN.ordinal();
+    private static final int KNIGHT = PieceType.KNIGHT.ordinal();
+    private static final int BISHOP = PieceType.BISHOP.ordinal();
+    private static final int ROOK   = PieceType.ROOK.ordinal();
+    private static final int QUEEN  = PieceType.QUEEN.ordinal();
+    private static final int KING   = PieceType.KING.ordinal();
+    private static final int[] PROMOTIONS = {QUEEN, ROOK, BISHOP, KNIGHT};
+
+    /**
+     * Clears {@code list} and fills it with every pseudo-legal move of {@code color}.
+     * @return the number of moves generated
+     */
+    public static int generate(Board board, PieceColor color, MoveList list) {
+        list.clear();
+        long own = board.pieces(color);
+        addPieceMoves(board, color, ~own, 0L, -1, list);
+        int king = board.kingSquare(color);
+        if (king >= 0) addMoves(board, king, KING, Attacks.KING[king] & ~own, list);
+        return list.size();
+    }
+
+    /**
+     * Clears {@code list} and fills it with the fully legal moves of {@code color}.
+     * Checkers and pinned pieces are computed once: in double check only king moves are
+     * produced, in single check the other pieces must capture the checker or block, pinned
+     * pieces stay on their pin line, and the king never steps onto an attacked square.
+     * No move needs to be tried on the board.
+     * @return the number of moves generated
+     */
+    public static int generateLegal(Board board, PieceColor color, MoveList list) {
+        int king = board.kingSquare(color);
+        if (king < 0) return generate(board, color, list); // kingless test setups
+
+        list.clear();
+        PieceColor enemy = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        long own = board.pieces(color);
+        long occupied = board.occupancy();
+
+        // king steps: test the destination with the king lifted off the board,
+        // so a slider checking along the line still covers the square behind it
+        long withoutKing = occupied & ~(1L << king);
+        for (long t = Attacks.KING[king] & ~own; t != 0; t &= t - 1) {
+            int to = Long.numberOfTrailingZeros(t);
+            if (Rules.attackersTo(board, to, enemy, withoutKing) == 0) {
+                int code = board.pieceCodeAt(to);
+                list.add(Move.of(king, to, 0, code == Board.EMPTY ? -1 : code % 6, KING));
+            }
+        }
+
+        long checkers = Rules.attackersTo(board, king, enemy, occupied);
+        if (Long.bitCount(checkers) > 1) return list.size(); // double check: king moves only
+
+        long allowed = ~own;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            allowed = checkers | Attacks.BETWEEN[king][checker]; // capture or interpose
+        }
+        addPieceMoves(board, color, allowed, pinnedPieces(board, color, enemy, king, occupied), king, list);
+        return list.size();
+    }
+
+    /** Own pieces that are the only blocker between the king and an enemy slider. */
+    private static long pinnedPieces(Board board, PieceColor color, PieceColor enemy, int king, long occupied) {
+        long queens = board.pieces(enemy, PieceType.QUEEN);
+        long snipers = (Attacks.rook(king, 0L) & (board.pieces(enemy, PieceType.ROOK) | queens))
+                     | (Attacks.bishop(king, 0L) & (board.pieces(enemy, PieceType.BISHOP) | queens));
+        long pinned = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.BETWEEN[king][Long.numberOfTrailingZeros(snipers)] & occupied;
+            if (Long.bitCount(blockers) == 1) pinned |= blockers & board.pieces(color);
+        }
+        return pinned;
+    }
+
+    // ---------- Per-piece generators ----------
+    // Moves of every non-king piece whose destination lies in "allowed"; pinned pieces are
+    // further limited to the line through the king (king < 0 means no pin information).
+    private static void addPieceMoves(Board board, PieceColor color, long allowed, long pinned, int king, MoveList list) {
+        long occupied = board.occupancy();
+        for (long bb = board.pieces(color); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            int type = board.pieceCodeAt(sq) % 6;
+            if (type == KING) continue;
+
+            long mask = allowed;
+            if ((pinned & (1L << sq)) != 0) mask &= Attacks.LINE[king][sq];
+
+            if (type == PAWN) {
+                pawnMoves(board, color, sq, mask, list);
+                continue;
+            }
+            long targets;
+            if (type == KNIGHT)      targets = Attacks.KNIGHT[sq];
+            else if (type == BISHOP) targets = Attacks.bishop(sq, occupied);
+            else if (type == ROOK)   targets = Attacks.rook(sq, occupied);
+            else                     targets = Attacks.queen(sq, occupied);
+            addMoves(board, sq, type, targets & mask, list);
+        }
+    }
+
+    private static void addMoves(Board board, int from, int piece, long targets, MoveList list) {
+        for (; targets != 0; targets &= targets - 1) {
+            int to = Long.numberOfTrailingZeros(targets);
+            int code = board.pieceCodeAt(to);
+            list.add(Move.of(from, to, 0, code == Board.EMPTY ? -1 : code % 6, piece));
+        }
+    }
+
+    private static void pawnMoves(Board board, PieceColor color, int from, long mask, MoveList list) {
+        int dir = (color == PieceColor.WHITE) ? -1 : 1;   // white moves up, black moves down
+        int startRow = (color == PieceColor.WHITE) ? 6 : 1;
+        int r = from >> 3;
+        int r1 = r + dir;
+        if (r1 < 0 || r1 > 7) return;
+
+        // forward pushes (single, then double from the start row)
+        int one = from + dir * 8;
+        if (board.pieceCodeAt(one) == Board.EMPTY) {
+            if ((mask & (1L << one)) != 0) addPawnMove(from, one, -1, list);
+            int two = one + dir * 8;
+            if (r == startRow && board.pieceCodeAt(two) == Board.EMPTY && (mask & (1L << two)) != 0) {
+                list.add(Move.of(from, two, 0, -1, PAWN));
+            }
+        }
+
+        // diagonal captures
+        PieceColor enemy = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        for (long caps = Attacks.pawn(color, from) & board.pieces(enemy) & mask; caps != 0; caps &= caps - 1) {
+            int to = Long.numberOfTrailingZeros(caps);
+            addPawnMove(from, to, board.pieceCodeAt(to) % 6, list);
+        }
+    }
+
+    private static void addPawnMove(int from, int to, int captured, MoveList list) {
+        int row = to >> 3;
+        if (row == 0 || row == 7) {
+            for (int promo : PROMOTIONS) list.add(Move.of(from, to, promo, captured, PAWN));
+        } else {
+            list.add(Move.of(from, to, 0, captured, PAWN));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package logic;
+
+/**
+ * MoveList : reusable, preallocated buffer of packed {@link Move} ints.
+ * Searchers keep one per ply and clear it instead of allocating new lists.
+ */
+public final class MoveList {
+    private final int[] moves = new int[MoveGenerator.MAX_MOVES];
+    private int size;
+
+    public void clear()           { size = 0; }
+    public void add(int move)     { moves[size++] = move; }
+    public int  get(int i)        { return moves[i]; }
+    public void set(int i, int m) { moves[i] = m; }
+    public int  size()            { return size; }
+    public boolean isEmpty()      { return size == 0; }
+
+    /** True if a move with the same from/to/promotion is in the list. */
+    public boolean contains(int move) {
+        int key = Move.compact(move);
+        for (int i = 0; i < size; i++) {
+            if (Move.compact(moves[i]) == key) return true;
+        }
+        return false;
+    }
+}
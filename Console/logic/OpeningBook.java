@@ -0,0 +1,136 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import objects.PieceColor;
+
+/**
+ * OpeningBook : read-only opening book, memory-mapped from a binary file.
+ *
+ * File layout (big-endian):
+ *   header  int magic "CHBK", int version, long entry count
+ *   entries long position key, int move, int weight      (16 bytes each)
+ * Entries are sorted by key (then move), so the moves of a position form one run that is
+ * found by binary search directly in the mapping; nothing is loaded onto the heap.
+ *
+ * The key is {@link Board#zobristKey()} XOR {@link Zobrist#sideKey} of the side to move,
+ * the move its compact {@link Move} encoding, and the weight how often it was played.
+ * Files are written by {@link OpeningBookBuilder}.
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x4348424B; // "CHBK"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    /** Where the games look for a book, relative to the working directory (like saves/). */
+    public static final Path DEFAULT_PATH = Path.of("books", "book.bin");
+
+    private final MappedByteBuffer map;
+    private final long entries;
+
+    private OpeningBook(MappedByteBuffer map, long entries) {
+        this.map = map;
+        this.entries = entries;
+    }
+
+    /**
+     * Maps a book file read-only. The channel is closed again right away; the mapping
+     * stays valid for the life of the returned object.
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.BIG_ENDIAN);
+            long count = map.getLong(8);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION
+                    || count < 0 || HEADER_BYTES + count * ENTRY_BYTES != size) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            return new OpeningBook(map, count);
+        }
+    }
+
+    /** Opens {@link #DEFAULT_PATH}, or returns null if there is no usable book there. */
+    public static OpeningBook openDefault() {
+        if (!Files.isRegularFile(DEFAULT_PATH)) return null;
+        try {
+            return open(DEFAULT_PATH);
+        } catch (IOException e) {
+            System.err.println("Error opening book: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Number of (position, move) entries in the book. */
+    public long size() { return entries; }
+
+    /** Position key as stored in the book. */
+    public static long key(Board board, PieceColor toMove) {
+        return board.zobristKey() ^ Zobrist.sideKey(toMove);
+    }
+
+    /**
+     * Picks a book move for {@code toMove}, at random in proportion to the weights, among
+     * the book moves that are legal in the position (guards against key collisions).
+     * @return the legal generated move, or {@link Move#NONE} when the position is not in the book
+     */
+    public int pickMove(Board board, PieceColor toMove) {
+        long key = key(board, toMove);
+        long first = firstIndex(key);
+        if (first < 0) return Move.NONE;
+
+        MoveList legal = new MoveList();
+        int n = MoveGenerator.generateLegal(board, toMove, legal);
+        int[] candidates = new int[n];
+        long[] weights = new long[n];
+        int found = 0;
+        long total = 0;
+        for (long i = first; i < entries && keyAt(i) == key; i++) {
+            int bookMove = map.getInt(offset(i) + 8);
+            int weight = map.getInt(offset(i) + 12);
+            for (int j = 0; j < n && weight > 0; j++) {
+                if (Move.compact(legal.get(j)) == bookMove) {
+                    candidates[found] = legal.get(j);
+                    weights[found++] = weight;
+                    total += weight;
+                    break;
+                }
+            }
+        }
+        if (found == 0) return Move.NONE;
+
+        long r = ThreadLocalRandom.current().nextLong(total);
+        for (int i = 0; i < found; i++) {
+            r -= weights[i];
+            if (r < 0) return candidates[i];
+        }
+        return candidates[found - 1];
+    }
+
+    // index of the first entry with this key, or -1 (lower-bound binary search)
+    private long firstIndex(long key) {
+        long lo = 0, hi = entries;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (keyAt(mid) < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return (lo < entries && keyAt(lo) == key) ? lo : -1;
+    }
+
+    private long keyAt(long i) { return map.getLong(offset(i)); }
+
+    private static int offset(long i) { return (int) (HEADER_BYTES + i * ENTRY_BYTES); }
+}
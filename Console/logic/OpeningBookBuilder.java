@@ -0,0 +1,163 @@
+package logic;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import objects.PieceColor;
+
+/**
+ * OpeningBookBuilder : builds an {@link OpeningBook} file offline from played games.
+ *
+ * Every game is replayed from the initial position; each (position, move) pair of its
+ * first plies is counted, and pairs seen often enough become book entries weighted by
+ * their count. A game is cut off at its first illegal or unreadable move.
+ *
+ * Inputs:
+ *   *.chess   saved games (only saves that recorded their move list)
+ *   *.txt     one game per line in coordinate notation, e.g. "e2e4 e7e5 g1f3";
+ *             text after '#' is a comment
+ *   directory every *.chess and *.txt file in it
+ *
+ * Headless usage (from the compiled output directory):
+ *   java -cp out logic.OpeningBookBuilder [-plies N] [-min N] out.bin input...
+ *   java -cp out logic.OpeningBookBuilder books/book.bin books/openings.txt saves
+ */
+public final class OpeningBookBuilder {
+    /** Default number of plies taken from each game (20 moves per side). */
+    public static final int DEFAULT_MAX_PLIES = 40;
+
+    private final Map<Long, Map<Integer, Integer>> counts = new HashMap<>();
+    private final int maxPlies;
+    private int games;
+
+    OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    public static void main(String[] args) {
+        int maxPlies = DEFAULT_MAX_PLIES;
+        int minCount = 1;
+        int i = 0;
+        try {
+            for (; i < args.length && args[i].startsWith("-"); i += 2) {
+                switch (args[i]) {
+                    case "-plies" -> maxPlies = Integer.parseInt(args[i + 1]);
+                    case "-min" -> minCount = Integer.parseInt(args[i + 1]);
+                    default -> throw new IllegalArgumentException(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            i = args.length; // falls through to the usage message
+        }
+        if (args.length - i < 2) {
+            System.err.println("Usage: java logic.OpeningBookBuilder [-plies N] [-min N] out.bin input...");
+            System.exit(2);
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(maxPlies);
+        Path out = Path.of(args[i]);
+        try {
+            for (int k = i + 1; k < args.length; k++) builder.addPath(new File(args[k]));
+            long written = builder.write(out, minCount);
+            System.out.println("Games: " + builder.games + "  Positions: " + builder.counts.size()
+                    + "  Entries written: " + written + "  -> " + out);
+        } catch (IOException e) {
+            System.err.println("Error building book: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    void addPath(File file) throws IOException {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles((dir, name) -> name.endsWith(".chess") || name.endsWith(".txt"));
+            if (children == null) return;
+            for (File child : children) addPath(child);
+        } else if (file.getName().endsWith(".chess")) {
+            addSave(file);
+        } else {
+            for (String line : Files.readAllLines(file.toPath())) {
+                int comment = line.indexOf('#');
+                if (comment >= 0) line = line.substring(0, comment);
+                line = line.trim();
+                if (!line.isEmpty()) addGame(line.split("\\s+"));
+            }
+        }
+    }
+
+    private void addSave(File file) {
+        try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(file))) {
+            GameSave save = (GameSave) in.readObject();
+            int[] moves = save.getMoves();
+            if (moves == null) return; // older save without a move list
+            String[] text = new String[moves.length];
+            for (int k = 0; k < moves.length; k++) text[k] = Move.toString(moves[k]);
+            addGame(text);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("Skipping " + file + ": " + e.getMessage());
+        }
+    }
+
+    /** Replays one game from the initial position, counting its first plies. */
+    void addGame(String[] moves) {
+        Board board = new Board();
+        PieceColor toMove = PieceColor.WHITE;
+        MoveList legal = new MoveList();
+        int plies = Math.min(moves.length, maxPlies);
+        for (int ply = 0; ply < plies; ply++) {
+            int move = findLegal(board, toMove, moves[ply], legal);
+            if (move == Move.NONE) break;
+            counts.computeIfAbsent(OpeningBook.key(board, toMove), k -> new HashMap<>())
+                  .merge(Move.compact(move), 1, Integer::sum);
+            board.makeMove(move);
+            toMove = (toMove == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        }
+        games++;
+    }
+
+    // the legal move written as "e2e4" / "e7e8q", or Move.NONE
+    private static int findLegal(Board board, PieceColor toMove, String text, MoveList legal) {
+        int n = MoveGenerator.generateLegal(board, toMove, legal);
+        for (int k = 0; k < n; k++) {
+            if (Move.toString(legal.get(k)).equalsIgnoreCase(text)) return legal.get(k);
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Writes the pairs played at least {@code minCount} times, sorted for binary search.
+     * @return number of entries written
+     */
+    long write(Path out, int minCount) throws IOException {
+        List<long[]> entries = new ArrayList<>(); // {key, move, weight}
+        for (Map.Entry<Long, Map<Integer, Integer>> position : counts.entrySet()) {
+            for (Map.Entry<Integer, Integer> move : position.getValue().entrySet()) {
+                if (move.getValue() >= minCount) {
+                    entries.add(new long[]{position.getKey(), move.getKey(), move.getValue()});
+                }
+            }
+        }
+        entries.sort((a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+
+        if (out.getParent() != null) Files.createDirectories(out.getParent());
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(out)))) {
+            data.writeInt(OpeningBook.MAGIC);
+            data.writeInt(OpeningBook.VERSION);
+            data.writeLong(entries.size());
+            for (long[] e : entries) {
+                data.writeLong(e[0]);
+                data.writeInt((int) e[1]);
+                data.writeInt((int) e[2]);
+            }
+        }
+        return entries.size();
+    }
+}
@@ -0,0 +1,167 @@
+package logic;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import objects.PieceColor;
+
+/**
+ * Perft : counts the leaf nodes of the legal move tree to a fixed depth.
+ * Used to prove the move generator correct against known counts and to measure its
+ * throughput (nodes per second). "Divide" prints the count below each root move, which
+ * narrows a wrong total down to the move that causes it.
+ *
+ * Headless usage (from the compiled output directory):
+ *   java -cp out logic.Perft                      run the reference suite
+ *   java -cp out logic.Perft perft 5 [fen]        count one position
+ *   java -cp out logic.Perft divide 3 [fen]       per-root-move counts
+ * The console game exposes the same as the "perft" and "divide" commands.
+ *
+ * Reference counts: position 6 and the promotion position are the published counts as
+ * they stand (no castling rights, and no en passant capture within their depths). This
+ * engine implements neither castling nor en passant, so for the other four the last
+ * count is the published total minus the published number of castling / en passant
+ * leaves at that depth (see SUITE_COUNTS). Those moves first occur at exactly that
+ * depth, so the subtraction is exact and the counts stay independent of this generator;
+ * the suite stops there because deeper counts would need a recount by this generator.
+ */
+public final class Perft {
+    private Perft() {}
+
+    private static final String[] SUITE_NAMES = {
+        "start position", "position 3", "position 4", "kiwipete", "position 6", "promotions"
+    };
+    private static final String[] SUITE_FENS = {
+        Fen.START,
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1"
+    };
+    private static final long[][] SUITE_COUNTS = {
+        {20, 400, 8902, 197281, 4865351}, // depth 5: 4,865,609 - 258 en passant
+        {14, 191, 2810},                  // depth 3: 2,812 - 2 en passant
+        {6, 258},                         // depth 2: 264 - 6 castling
+        {46},                             // depth 1: 48 - 2 castling
+        {46, 2079, 89890, 3894594},       // published
+        {24, 496, 9483, 182838}           // published
+    };
+
+    /** Number of leaf nodes {@code depth} plies below the position. */
+    public static long perft(Board board, PieceColor toMove, int depth) {
+        if (depth <= 0) return 1;
+        return perft(board, toMove, depth, newLists(depth), 0);
+    }
+
+    /**
+     * Prints the leaf count below every root move, then the total.
+     * @return the total leaf count
+     */
+    public static long divide(Board board, PieceColor toMove, int depth, PrintStream out) {
+        if (depth <= 0) return 1;
+        MoveList[] lists = newLists(depth);
+        MoveList root = lists[0];
+        int n = MoveGenerator.generateLegal(board, toMove, root);
+        long total = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i++) {
+            int move = root.get(i);
+            int undo = board.makeMove(move);
+            long count = (depth == 1) ? 1 : perft(board, opposite(toMove), depth - 1, lists, 1);
+            board.unmakeMove(undo);
+            out.println(Move.toString(move) + ": " + count);
+            total += count;
+        }
+        out.println();
+        out.println("Moves: " + n + "  Nodes: " + total + "  " + rate(total, System.nanoTime() - start));
+        return total;
+    }
+
+    /**
+     * Runs every reference position up to {@code maxDepth} (capped by the known counts).
+     * @return true if every count matched
+     */
+    public static boolean runSuite(int maxDepth, PrintStream out) {
+        Board board = new Board();
+        boolean allPassed = true;
+        long totalNodes = 0, totalNanos = 0;
+        out.printf("Attack tables built in %.1f ms%n", Attacks.INIT_NANOS / 1e6);
+        for (int p = 0; p < SUITE_FENS.length; p++) {
+            out.println(SUITE_NAMES[p] + "  [" + SUITE_FENS[p] + "]");
+            long[] expected = SUITE_COUNTS[p];
+            for (int d = 1; d <= Math.min(maxDepth, expected.length); d++) {
+                PieceColor toMove = Fen.load(board, SUITE_FENS[p]);
+                long start = System.nanoTime();
+                long nodes = perft(board, toMove, d);
+                long nanos = System.nanoTime() - start;
+                totalNodes += nodes;
+                totalNanos += nanos;
+                boolean ok = nodes == expected[d - 1];
+                allPassed &= ok;
+                out.printf("  depth %d: %,12d  %s  %s%n", d, nodes, ok ? "OK  " : "FAIL (expected " + expected[d - 1] + ")",
+                        rate(nodes, nanos));
+            }
+        }
+        out.println((allPassed ? "All perft counts match." : "PERFT MISMATCH.") + "  Total: "
+                + String.format("%,d", totalNodes) + " nodes, " + rate(totalNodes, totalNanos));
+        return allPassed;
+    }
+
+    // ---------- Internals ----------
+    private static long perft(Board board, PieceColor toMove, int depth, MoveList[] lists, int ply) {
+        MoveList moves = lists[ply];
+        int n = MoveGenerator.generateLegal(board, toMove, moves);
+        if (depth == 1) return n; // bulk counting: legal moves are the leaves
+
+        long nodes = 0;
+        PieceColor next = opposite(toMove);
+        for (int i = 0; i < n; i++) {
+            int undo = board.makeMove(moves.get(i));
+            nodes += perft(board, next, depth - 1, lists, ply + 1);
+            board.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    private static MoveList[] newLists(int depth) {
+        MoveList[] lists = new MoveList[depth];
+        for (int i = 0; i < depth; i++) lists[i] = new MoveList();
+        return lists;
+    }
+
+    private static PieceColor opposite(PieceColor c) {
+        return (c == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+
+    private static String rate(long nodes, long nanos) {
+        double seconds = Math.max(nanos, 1) / 1e9;
+        return String.format("%.3f s, %,.0f nodes/s", seconds, nodes / seconds);
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            boolean ok = runSuite(Integer.MAX_VALUE, System.out);
+            if (!ok) System.exit(1);
+            return;
+        }
+
+        String mode = args[0].toLowerCase();
+        int depth = (args.length > 1) ? Integer.parseInt(args[1]) : 4;
+        String fen = (args.length > 2) ? String.join(" ", Arrays.copyOfRange(args, 2, args.length)) : Fen.START;
+        Board board = new Board();
+        PieceColor toMove = Fen.load(board, fen);
+
+        switch (mode) {
+            case "suite" -> {
+                if (!runSuite(depth, System.out)) System.exit(1);
+            }
+            case "divide" -> divide(board, toMove, depth, System.out);
+            case "perft" -> {
+                long start = System.nanoTime();
+                long nodes = perft(board, toMove, depth);
+                System.out.println("Nodes: " + nodes + "  " + rate(nodes, System.nanoTime() - start));
+            }
+            default -> System.out.println("Usage: Perft [suite <maxDepth> | perft <depth> [fen] | divide <depth> [fen]]");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package logic;
+
+/**
+ * PieceSquareTables : material plus placement bonus per piece code and square, in
+ * centipawns, for the middlegame (MG) and the endgame (EG).
+ *
+ * Board adds and subtracts these values as pieces appear and disappear, so the running
+ * White-minus-Black sums and the game phase are always current. The phase counts the
+ * non-pawn material left (knight/bishop 1, rook 2, queen 4; 24 at the start); a score is
+ * blended from MG at full phase towards EG as pieces come off ("tapered" evaluation).
+ *
+ * Tables below are written from White's side with rank 8 first, i.e. in square order
+ * (a8 = 0); Black uses the same tables mirrored vertically.
+ */
+public final class PieceSquareTables {
+    private PieceSquareTables() {}
+
+    /** Phase of the starting position; the phase is clamped to this value. */
+    public static final int MAX_PHASE = 24;
+
+    /** MG[code][sq] / EG[code][sq]: value of that piece on that square, positive for White. */
+    static final int[][] MG = new int[12][64];
+    static final int[][] EG = new int[12][64];
+    /** Phase weight per piece code. */
+    static final int[] PHASE = new int[12];
+
+    // material by PieceType ordinal: PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING
+    private static final int[] MATERIAL_MG = {100, 500, 320, 330, 900, 0};
+    private static final int[] MATERIAL_EG = {120, 520, 300, 320, 950, 0};
+    private static final int[] PHASE_WEIGHT = {0, 2, 1, 1, 4, 0};
+
+    private static final int[] PAWN_MG = {
+         0,   0,   0,   0,   0,   0,   0,   0,
+        50,  50,  50,  50,  50,  50,  50,  50,
+        10,  10,  20,  30,  30,  20,  10,  10,
+         5,   5,  10,  25,  25,  10,   5,   5,
+         0,   0,   0,  20,  20,   0,   0,   0,
+         5,  -5, -10,   0,   0, -10,  -5,   5,
+         5,  10,  10, -20, -20,  10,  10,   5,
+         0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] PAWN_EG = {
+         0,   0,   0,   0,   0,   0,   0,   0,
+        80,  80,  80,  80,  80,  80,  80,  80,
+        50,  50,  50,  50,  50,  50,  50,  50,
+        30,  30,  30,  30,  30,  30,  30,  30,
+        15,  15,  15,  15,  15,  15,  15,  15,
+         5,   5,   5,   5,   5,   5,   5,   5,
+         0,   0,   0,   0,   0,   0,   0,   0,
+         0,   0,   0,   0,   0,   0,   0,   0
+    };
+    private static final int[] KNIGHT_PST = {
+       -50, -40, -30, -30, -30, -30, -40, -50,
+       -40, -20,   0,   0,   0,   0, -20, -40,
+       -30,   0,  10,  15,  15,  10,   0, -30,
+       -30,   5,  15,  20,  20,  15,   5, -30,
+       -30,   0,  15,  20,  20,  15,   0, -30,
+       -30,   5,  10,  15,  15,  10,   5, -30,
+       -40, -20,   0,   5,   5,   0, -20, -40,
+       -50, -40, -30, -30, -30, -30, -40, -50
+    };
+    private static final int[] BISHOP_PST = {
+       -20, -10, -10, -10, -10, -10, -10, -20,
+       -10,   0,   0,   0,   0,   0,   0, -10,
+       -10,   0,   5,  10,  10,   5,   0, -10,
+       -10,   5,   5,  10,  10,   5,   5, -10,
+       -10,   0,  10,  10,  10,  10,   0, -10,
+       -10,  10,  10,  10,  10,  10,  10, -10,
+       -10,   5,   0,   0,   0,   0,   5, -10,
+       -20, -10, -10, -10, -10, -10, -10, -20
+    };
+    private static final int[] ROOK_PST = {
+         0,   0,   0,   0,   0,   0,   0,   0,
+         5,  10,  10,  10,  10,  10,  10,   5,
+        -5,   0,   0,   0,   0,   0,   0,  -5,
+        -5,   0,   0,   0,   0,   0,   0,  -5,
+        -5,   0,   0,   0,   0,   0,   0,  -5,
+        -5,   0,   0,   0,   0,   0,   0,  -5,
+        -5,   0,   0,   0,   0,   0,   0,  -5,
+         0,   0,   0,   5,   5,   0,   0,   0
+    };
+    private static final int[] QUEEN_PST = {
+       -20, -10, -10,  -5,  -5, -10, -10, -20,
+       -10,   0,   0,   0,   0,   0,   0, -10,
+       -10,   0,   5,   5,   5,   5,   0, -10,
+        -5,   0,   5,   5,   5,   5,   0,  -5,
+         0,   0,   5,   5,   5,   5,   0,  -5,
+       -10,   5,   5,   5,   5,   5,   0, -10,
+       -10,   0,   5,   0,   0,   0,   0, -10,
+       -20, -10, -10,  -5,  -5, -10, -10, -20
+    };
+    private static final int[] KING_MG = {
+       -30, -40, -40, -50, -50, -40, -40, -30,
+       -30, -40, -40, -50, -50, -40, -40, -30,
+       -30, -40, -40, -50, -50, -40, -40, -30,
+       -30, -40, -40, -50, -50, -40, -40, -30,
+       -20, -30, -30, -40, -40, -30, -30, -20,
+       -10, -20, -20, -20, -20, -20, -20, -10,
+        20,  20,   0,   0,   0,   0,  20,  20,
+        20,  30,  10,   0,   0,  10,  30,  20
+    };
+    private static final int[] KING_EG = {
+       -50, -40, -30, -20, -20, -30, -40, -50,
+       -30, -20, -10,   0,   0, -10, -20, -30,
+       -30, -10,  20,  30,  30,  20, -10, -30,
+       -30, -10,  30,  40,  40,  30, -10, -30,
+       -30, -10,  30,  40,  40,  30, -10, -30,
+       -30, -10,  20,  30,  30,  20, -10, -30,
+       -30, -30,   0,   0,   0,   0, -30, -30,
+       -50, -30, -30, -30, -30, -30, -30, -50
+    };
+
+    static {
+        // placement tables by PieceType ordinal: PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING
+        int[][] mg = {PAWN_MG, ROOK_PST, KNIGHT_PST, BISHOP_PST, QUEEN_PST, KING_MG};
+        int[][] eg = {PAWN_EG, ROOK_PST, KNIGHT_PST, BISHOP_PST, QUEEN_PST, KING_EG};
+        for (int type = 0; type < 6; type++) {
+            int white = type;       // PieceColor.WHITE codes 0..5
+            int black = 6 + type;   // PieceColor.BLACK codes 6..11
+            for (int sq = 0; sq < 64; sq++) {
+                MG[white][sq] = MATERIAL_MG[type] + mg[type][sq];
+                EG[white][sq] = MATERIAL_EG[type] + eg[type][sq];
+                MG[black][sq] = -(MATERIAL_MG[type] + mg[type][sq ^ 56]); // sq ^ 56 flips the rank
+                EG[black][sq] = -(MATERIAL_EG[type] + eg[type][sq ^ 56]);
+            }
+            PHASE[white] = PHASE[black] = PHASE_WEIGHT[type];
+        }
+    }
+
+    /** Blends middlegame and endgame scores by the phase (clamped to {@link #MAX_PHASE}). */
+    public static int taper(int mg, int eg, int phase) {
+        int p = Math.min(phase, MAX_PHASE);
+        return (mg * p + eg * (MAX_PHASE - p)) / MAX_PHASE;
+    }
+}
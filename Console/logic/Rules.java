@@ -5,41 +5,39 @@ import objects.*;
 public final class Rules {
     private Rules() {}
 
-    /* check if a square is attacked */
+    /*
+     * check if a square is attacked
+     * Works backwards from the target ("super-piece"): the attack tables give every square
+     * from which a knight, king, pawn or slider could hit it, and the result is intersected
+     * with the attacker's pieces. The occupant of the target square itself is ignored.
+     */
     public static boolean isSquareAttacked(Board board, int r, int c, PieceColor byColor) {
-        for (Piece p : board.getPiecesByColor(byColor)) {
-            if (p.attacks(board, p.getX(), p.getY(), r, c)) return true;
-        }
-        return false;
+        return attackersTo(board, r * 8 + c, byColor, board.occupancy()) != 0;
+    }
+
+    /* all pieces of byColor attacking square sq, given an occupancy mask for the sliders */
+    public static long attackersTo(Board board, int sq, PieceColor byColor, long occupied) {
+        PieceColor defender = (byColor == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        long queens = board.pieces(byColor, PieceType.QUEEN);
+        return (Attacks.KNIGHT[sq] & board.pieces(byColor, PieceType.KNIGHT))
+             | (Attacks.KING[sq] & board.pieces(byColor, PieceType.KING))
+             | (Attacks.pawn(defender, sq) & board.pieces(byColor, PieceType.PAWN))
+             | (Attacks.rook(sq, occupied) & (board.pieces(byColor, PieceType.ROOK) | queens))
+             | (Attacks.bishop(sq, occupied) & (board.pieces(byColor, PieceType.BISHOP) | queens));
     }
 
     /* check if a king is in check */
     public static boolean isInCheck(Board board, PieceColor color) {
-        int[] king = board.findKing(color);
-        if (king == null) return false; // no king found, should not happen in a valid game
+        int king = board.kingSquare(color);
+        if (king < 0) return false; // no king found, should not happen in a valid game
         PieceColor opp = (color == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
-        return isSquareAttacked(board, king[0], king[1], opp);
+        return isSquareAttacked(board, king >> 3, king & 7, opp);
     }
 
     /* check if there are any legal moves (to escape check) */
     public static boolean hasAnyLegalMove(Board board, PieceColor color) {
-        for (Piece p : board.getPiecesByColor(color)) {
-            int sr = p.getX(), sc = p.getY();
-            for (int er = 0; er < 8; er++) {
-                for (int ec = 0; ec < 8; ec++) {
-                    // check if the piece can move there via interface
-                    if (!p.canMove(board, sr, sc, er, ec)) continue;
-
-                    // try the move (your Board.movePiece has handled promotion)
-                    Board copy = board.deepCopy();
-                    copy.movePiece(sr, sc, er, ec);
-
-                    // check if the king is still in check after the move
-                    if (!isInCheck(copy, p.getColor())) return true;
-                }
-            }
-        }
-        return false;
+        // the legal generator already accounts for checks and pins: no trial moves needed
+        return MoveGenerator.generateLegal(board, color, new MoveList()) > 0;
     }
 
     /* check if a king is in checkmate */
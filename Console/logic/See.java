@@ -0,0 +1,165 @@
+package logic;
+
+import objects.PieceColor;
+import objects.PieceType;
+
+/**
+ * See : static exchange evaluation of a capture.
+ *
+ * All captures on the target square are played out without searching: after the move,
+ * each side in turn recaptures with its least valuable attacker, and either side may stop
+ * as soon as going on would lose material. Sliders hidden behind a piece that has just
+ * captured (x-rays, e.g. a rook behind a rook) join in when it leaves the line. Pins and
+ * checks elsewhere on the board are ignored; the king only recaptures when the square is
+ * no longer attacked. A pawn promoting on its first capture counts the promotion.
+ *
+ * The board is only read, never changed; the move is one of its generated (legal) moves.
+ */
+public final class See {
+    private See() {}
+
+    /** Exchange values in centipawns by PieceType ordinal: PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING. */
+    private static final int[] VALUE = {100, 500, 300, 300, 900, 20000};
+    private static final int MAX_EXCHANGES = 32;
+    // attackers are tried cheapest first
+    private static final PieceType[] BY_VALUE = {
+            PieceType.PAWN, PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+
+    /**
+     * Material the side making {@code move} wins (positive) or loses (negative) once the
+     * exchange on its target square is over, in centipawns. Works for quiet moves too:
+     * then it tells whether the piece can be won on its new square.
+     */
+    public static int evaluate(Board board, int move) {
+        int from = Move.from(move), to = Move.to(move);
+        PieceType captured = Move.captured(move);
+        PieceType promotion = Move.promotion(move);
+        PieceColor side = (board.pieceCodeAt(from) / 6 == PieceColor.WHITE.ordinal())
+                ? PieceColor.WHITE : PieceColor.BLACK;
+
+        int[] gain = new int[MAX_EXCHANGES];
+        gain[0] = (captured == null) ? 0 : VALUE[captured.ordinal()];
+        int onSquare = VALUE[Move.piece(move).ordinal()]; // value of the piece that can be taken next
+        if (promotion != null) {
+            gain[0] += VALUE[promotion.ordinal()] - VALUE[PieceType.PAWN.ordinal()];
+            onSquare = VALUE[promotion.ordinal()];
+        }
+
+        long occupied = board.occupancy() ^ (1L << from);
+        long attackers = attackersTo(board, to, occupied);
+        long diagonal = diagonalSliders(board);
+        long straight = straightSliders(board);
+
+        int d = 0;
+        while (d + 1 < MAX_EXCHANGES) {
+            side = (side == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+            attackers &= occupied;
+            long own = attackers & board.pieces(side);
+            if (own == 0) break;
+
+            // least valuable attacker of the side to recapture
+            PieceType attacker = null;
+            long bit = 0;
+            for (PieceType type : BY_VALUE) {
+                long bb = own & board.pieces(side, type);
+                if (bb != 0) {
+                    attacker = type;
+                    bit = bb & -bb;
+                    break;
+                }
+            }
+            if (attacker == PieceType.KING && (attackers & ~own) != 0) break; // would walk into check
+
+            d++;
+            gain[d] = onSquare - gain[d - 1]; // recapturer's balance if nothing follows
+            onSquare = VALUE[attacker.ordinal()];
+
+            occupied ^= bit;
+            // sliders behind the piece that just captured can now see the square
+            if (attacker == PieceType.PAWN || attacker == PieceType.BISHOP || attacker == PieceType.QUEEN) {
+                attackers |= Attacks.bishop(to, occupied) & diagonal;
+            }
+            if (attacker == PieceType.ROOK || attacker == PieceType.QUEEN) {
+                attackers |= Attacks.rook(to, occupied) & straight;
+            }
+        }
+        // negamax back up the sequence: each side picks the better of stopping and capturing
+        while (d > 0) {
+            gain[d - 1] = -Math.max(-gain[d - 1], gain[d]);
+            d--;
+        }
+        return gain[0];
+    }
+
+    /**
+     * True if {@code move} wins at least {@code threshold} centipawns by {@link #evaluate}.
+     * Cheaper than comparing {@link #evaluate}: it only tracks whether the balance is still
+     * above the threshold, stops as soon as one side cannot turn that around, and answers
+     * most captures from the two pieces involved alone.
+     */
+    public static boolean atLeast(Board board, int move, int threshold) {
+        if (Move.isPromotion(move)) return evaluate(board, move) >= threshold;
+        int from = Move.from(move), to = Move.to(move);
+        PieceType captured = Move.captured(move);
+
+        // balance is how far the mover is above the threshold with the last capture still standing
+        int balance = ((captured == null) ? 0 : VALUE[captured.ordinal()]) - threshold;
+        if (balance < 0) return false;                        // even with no recapture
+        balance = VALUE[Move.piece(move).ordinal()] - balance;
+        if (balance <= 0) return true;                        // even if the piece is taken back
+
+        PieceColor side = (board.pieceCodeAt(from) / 6 == PieceColor.WHITE.ordinal())
+                ? PieceColor.WHITE : PieceColor.BLACK;
+        long occupied = board.occupancy() ^ (1L << from);
+        long attackers = attackersTo(board, to, occupied);
+        boolean result = true;                                // if nobody recaptures
+        while (true) {
+            side = (side == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+            attackers &= occupied;
+            long own = attackers & board.pieces(side);
+            if (own == 0) break;
+            result = !result;
+
+            PieceType attacker = PieceType.KING;
+            for (PieceType type : BY_VALUE) {
+                if ((own & board.pieces(side, type)) != 0) {
+                    attacker = type;
+                    break;
+                }
+            }
+            if (attacker == PieceType.KING) {
+                // the king can only take last; if the square is still attacked it cannot take at all
+                return ((attackers & ~own) != 0) != result;
+            }
+            // from the side now capturing: how far it is above its own threshold after taking
+            balance = VALUE[attacker.ordinal()] - balance;
+            if (balance < (result ? 1 : 0)) break;            // even losing this piece keeps the outcome
+
+            long bb = own & board.pieces(side, attacker);
+            occupied ^= bb & -bb;
+            if (attacker == PieceType.PAWN || attacker == PieceType.BISHOP || attacker == PieceType.QUEEN) {
+                attackers |= Attacks.bishop(to, occupied) & diagonalSliders(board);
+            }
+            if (attacker == PieceType.ROOK || attacker == PieceType.QUEEN) {
+                attackers |= Attacks.rook(to, occupied) & straightSliders(board);
+            }
+        }
+        return result;
+    }
+
+    private static long diagonalSliders(Board board) {
+        return board.pieces(PieceColor.WHITE, PieceType.BISHOP) | board.pieces(PieceColor.BLACK, PieceType.BISHOP)
+             | board.pieces(PieceColor.WHITE, PieceType.QUEEN) | board.pieces(PieceColor.BLACK, PieceType.QUEEN);
+    }
+
+    private static long straightSliders(Board board) {
+        return board.pieces(PieceColor.WHITE, PieceType.ROOK) | board.pieces(PieceColor.BLACK, PieceType.ROOK)
+             | board.pieces(PieceColor.WHITE, PieceType.QUEEN) | board.pieces(PieceColor.BLACK, PieceType.QUEEN);
+    }
+
+    private static long attackersTo(Board board, int sq, long occupied) {
+        return Rules.attackersTo(board, sq, PieceColor.WHITE, occupied)
+             | Rules.attackersTo(board, sq, PieceColor.BLACK, occupied);
+    }
+}
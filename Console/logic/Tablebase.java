@@ -0,0 +1,177 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import objects.PieceType;
+
+/**
+ * Tablebase : distance-to-mate table for one small material set, memory-mapped from a file.
+ *
+ * Positions are seen from the strong side: it is called "White" here, the lone enemy king
+ * "Black" (a position with the colors the other way round is mirrored before indexing).
+ * Index = ((((stm * K + wk) * 64 + bk) * 64 + p1) * 64 + p2), where stm is 0 when the
+ * strong side is to move, p1/p2 are the strong pieces in {@link Material} order, and K is
+ * 64 king squares for pawn tables or the 10 squares of the a1-d1-d4 triangle otherwise
+ * (pawnless positions are turned by one of the 8 board symmetries until the strong king
+ * stands in it).
+ *
+ * Value per position: 0 = draw (or not a legal position), otherwise dtm + 1 where dtm is
+ * the number of plies to mate with best play; odd dtm means the side to move mates, even
+ * dtm that it gets mated (0 = mated now).
+ *
+ * File layout (big-endian): int magic "CHTB", int version, int bits per value, int count,
+ * then the values packed back to back in {@code bits} bits each, most significant bit
+ * first, plus one padding byte. Files are written by {@link TablebaseGenerator}.
+ */
+public final class Tablebase {
+    static final int MAGIC = 0x43485442; // "CHTB"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+
+    /** The material sets there are tables for; the strong side's pieces besides the king. */
+    public enum Material {
+        KQK(PieceType.QUEEN),
+        KRK(PieceType.ROOK),
+        KPK(PieceType.PAWN),
+        KBNK(PieceType.BISHOP, PieceType.KNIGHT);
+
+        final PieceType[] pieces;
+        final boolean pawns;
+
+        Material(PieceType... pieces) {
+            this.pieces = pieces;
+            boolean p = false;
+            for (PieceType t : pieces) p |= (t == PieceType.PAWN);
+            this.pawns = p;
+        }
+
+        /** Number of king squares in the index (the symmetry triangle when pawnless). */
+        int kingSquares() { return pawns ? 64 : TRIANGLE.length; }
+
+        /** Number of indices (positions) in the table. */
+        public int size() {
+            int n = 2 * kingSquares() * 64;
+            for (int i = 0; i < pieces.length; i++) n *= 64;
+            return n;
+        }
+
+        /** File name of the table, e.g. "KQK.tb". */
+        public String fileName() { return name() + ".tb"; }
+    }
+
+    // ---------- Symmetry ----------
+    // x = file (col), y = rank counted from White's side (7 - row)
+    /** The a1-d1-d4 triangle (x >= y, both 0..3), in index order. */
+    static final int[] TRIANGLE;
+    /** TRIANGLE_INDEX[sq]: position of sq in TRIANGLE, or -1. */
+    static final int[] TRIANGLE_INDEX = new int[64];
+    /** TRANSFORM[t][sq]: bit 0 mirrors the files, bit 1 the ranks, bit 2 swaps file and rank. */
+    static final int[][] TRANSFORM = new int[8][64];
+    /** CANONICAL[sq]: the transform that takes a strong king on sq into the triangle. */
+    static final int[] CANONICAL = new int[64];
+
+    static {
+        int[] triangle = new int[10];
+        int n = 0;
+        Arrays.fill(TRIANGLE_INDEX, -1);
+        for (int y = 0; y < 4; y++) {
+            for (int x = y; x < 4; x++) {
+                int sq = (7 - y) * 8 + x;
+                TRIANGLE_INDEX[sq] = n;
+                triangle[n++] = sq;
+            }
+        }
+        TRIANGLE = triangle;
+
+        for (int t = 0; t < 8; t++) {
+            for (int sq = 0; sq < 64; sq++) {
+                int x = sq & 7, y = 7 - (sq >> 3);
+                if ((t & 1) != 0) x = 7 - x;
+                if ((t & 2) != 0) y = 7 - y;
+                if ((t & 4) != 0) { int tmp = x; x = y; y = tmp; }
+                TRANSFORM[t][sq] = (7 - y) * 8 + x;
+            }
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int x = sq & 7, y = 7 - (sq >> 3);
+            int t = 0;
+            if (x > 3) { t |= 1; x = 7 - x; }
+            if (y > 3) { t |= 2; y = 7 - y; }
+            if (y > x) t |= 4;
+            CANONICAL[sq] = t;
+        }
+    }
+
+    /**
+     * Index of a position in the table of {@code m}, squares as seen from the strong side
+     * (which is White and moves towards row 0). {@code p2} is ignored for one-piece sets.
+     * @param stm 0 when the strong side is to move, 1 otherwise
+     */
+    static int index(Material m, int stm, int wk, int bk, int p1, int p2) {
+        int king;
+        if (m.pawns) {
+            king = wk;
+        } else {
+            int[] t = TRANSFORM[CANONICAL[wk]];
+            king = TRIANGLE_INDEX[t[wk]];
+            bk = t[bk];
+            p1 = t[p1];
+            if (p2 >= 0) p2 = t[p2];
+        }
+        int i = ((stm * m.kingSquares() + king) * 64 + bk) * 64 + p1;
+        return (m.pieces.length == 2) ? i * 64 + p2 : i;
+    }
+
+    // ---------- Mapped file ----------
+    private final Material material;
+    private final MappedByteBuffer map;
+    private final int bits;
+
+    private Tablebase(Material material, MappedByteBuffer map, int bits) {
+        this.material = material;
+        this.map = map;
+        this.bits = bits;
+    }
+
+    /**
+     * Maps the table of {@code material} from {@code file} read-only.
+     * @throws IOException if the file cannot be read or does not hold that table
+     */
+    public static Tablebase open(Material material, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a tablebase: " + file);
+            }
+            MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            map.order(ByteOrder.BIG_ENDIAN);
+            int bits = map.getInt(8);
+            int count = map.getInt(12);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION || bits < 1 || bits > 8
+                    || count != material.size() || size != dataBytes(count, bits) + HEADER_BYTES) {
+                throw new IOException("Not a " + material + " tablebase: " + file);
+            }
+            return new Tablebase(material, map, bits);
+        }
+    }
+
+    public Material material() { return material; }
+
+    /** Raw value at {@code index}: 0 = draw, else dtm + 1. */
+    int value(int index) {
+        long bit = (long) index * bits;
+        int pos = HEADER_BYTES + (int) (bit >>> 3);
+        int word = ((map.get(pos) & 0xFF) << 8) | (map.get(pos + 1) & 0xFF);
+        return (word >>> (16 - bits - (int) (bit & 7))) & ((1 << bits) - 1);
+    }
+
+    /** Bytes needed for {@code count} values of {@code bits} bits, plus one byte of padding. */
+    static long dataBytes(int count, int bits) {
+        return ((long) count * bits + 7) / 8 + 1;
+    }
+}
@@ -0,0 +1,332 @@
+package logic;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import objects.PieceColor;
+import objects.PieceType;
+
+/**
+ * TablebaseGenerator : builds the {@link Tablebase} files by retrograde analysis.
+ *
+ * Starting from the mates, the table is filled in by increasing distance to mate:
+ *   pass 0      the weak side to move with no legal move is mated (dtm 0) or stalemated;
+ *   pass k odd  a strong-side position with a move into a dtm k - 1 loss is a win in k;
+ *   pass k even a weak-side position whose every move leads to a known win is lost in k
+ *               (the longest of those wins is k - 1, or it would have been found before).
+ * Whatever is still open when passes stop finding anything is a draw. Moves that leave the
+ * table are looked up elsewhere: captures leave too little material (draw) and promotions
+ * continue in the KQK/KRK tables generated before KPK.
+ *
+ * Each pass only reads results of earlier passes, so it is split into chunks of positions
+ * that run in parallel on a {@link ForkJoinPool}.
+ *
+ * Headless usage (from the compiled output directory):
+ *   java -cp out logic.TablebaseGenerator [-threads N] [directory]
+ * writes KQK.tb, KRK.tb, KPK.tb and KBNK.tb into the directory (default tablebases/).
+ */
+public final class TablebaseGenerator {
+    // working values; a resolved position holds dtm + 1 (1..127)
+    private static final byte UNKNOWN = 0;
+    private static final byte DRAWN = -1;   // stalemate, illegal, or known to be drawn
+    private static final int MAX_VALUE = 127;
+    private static final int CHUNKS_PER_THREAD = 16;
+
+    private static final int WHITE = PieceColor.WHITE.ordinal();
+
+    private final Tablebase.Material m;
+    private final byte[] values;
+    private final Map<Tablebase.Material, byte[]> finished; // earlier tables, for promotions
+    private final int half;                                 // indices below: strong side to move
+    private final PieceType type1, type2;                   // type2 null for one-piece sets
+
+    private TablebaseGenerator(Tablebase.Material m, Map<Tablebase.Material, byte[]> finished) {
+        this.m = m;
+        this.values = new byte[m.size()];
+        this.finished = finished;
+        this.half = m.size() / 2;
+        this.type1 = m.pieces[0];
+        this.type2 = (m.pieces.length == 2) ? m.pieces[1] : null;
+    }
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int i = 0;
+        if (args.length >= 2 && args[0].equals("-threads")) {
+            threads = Math.max(1, Integer.parseInt(args[1]));
+            i = 2;
+        }
+        Path dir = (i < args.length) ? Path.of(args[i]) : Tablebases.DEFAULT_DIR;
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Map<Tablebase.Material, byte[]> finished = new EnumMap<>(Tablebase.Material.class);
+        try {
+            Files.createDirectories(dir);
+            for (Tablebase.Material m : Tablebase.Material.values()) { // KQK and KRK before KPK
+                long start = System.nanoTime();
+                byte[] table = generate(m, finished, pool);
+                finished.put(m, table);
+                long bytes = write(dir.resolve(m.fileName()), table);
+                System.out.printf("%-5s %,10d positions  longest mate %3d plies  %,9d bytes  %,6d ms  (%d threads)%n",
+                        m, table.length, longestMate(table), bytes, (System.nanoTime() - start) / 1_000_000, threads);
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing tablebases: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Generates the table of {@code m}. Values: 0 = draw or illegal, else dtm + 1.
+     * @param finished tables generated earlier (KPK needs KQK and KRK)
+     */
+    static byte[] generate(Tablebase.Material m, Map<Tablebase.Material, byte[]> finished, ForkJoinPool pool) {
+        if (m.pawns && (!finished.containsKey(Tablebase.Material.KQK) || !finished.containsKey(Tablebase.Material.KRK))) {
+            throw new IllegalStateException(m + " needs the KQK and KRK tables first");
+        }
+        TablebaseGenerator g = new TablebaseGenerator(m, finished);
+        g.runPass(pool, 0, g.values.length, g::initialise);
+
+        // promotions may lead into long external mates: keep going at least that far
+        int external = 0;
+        if (m.pawns) {
+            external = Math.max(longestMate(finished.get(Tablebase.Material.KQK)),
+                                longestMate(finished.get(Tablebase.Material.KRK))) + 1;
+        }
+        int idle = 0;
+        for (int k = 1; idle < 2 || k <= external + 1; k++) {
+            if (k > MAX_VALUE - 1) throw new IllegalStateException(m + ": mates too long to store");
+            int pass = k;
+            int changed = (k % 2 == 1)
+                    ? g.runPass(pool, 0, g.half, (idx, p) -> g.strongWins(idx, p, pass))
+                    : g.runPass(pool, g.half, g.values.length, (idx, p) -> g.weakLoses(idx, p, pass));
+            idle = (changed == 0) ? idle + 1 : 0;
+        }
+
+        byte[] result = g.values;
+        for (int idx = 0; idx < result.length; idx++) {
+            if (result[idx] == DRAWN) result[idx] = 0; // UNKNOWN (0) stays: never mated = draw
+        }
+        return result;
+    }
+
+    private interface Step {
+        /** Resolves the position if possible; true if it did. {@code p} is scratch for {@link #decode}. */
+        boolean apply(int idx, int[] p);
+    }
+
+    // Runs step over [from, to) split into chunks; returns how many positions were resolved
+    private int runPass(ForkJoinPool pool, int from, int to, Step step) {
+        int chunks = pool.getParallelism() * CHUNKS_PER_THREAD;
+        int size = (to - from + chunks - 1) / chunks;
+        List<Callable<Integer>> tasks = new ArrayList<>(chunks);
+        for (int start = from; start < to; start += size) {
+            int lo = start, hi = Math.min(to, start + size);
+            tasks.add(() -> {
+                int changed = 0;
+                int[] p = new int[5]; // one decode buffer per chunk, not per position
+                for (int idx = lo; idx < hi; idx++) {
+                    if (values[idx] == UNKNOWN && step.apply(idx, p)) changed++;
+                }
+                return changed;
+            });
+        }
+        int changed = 0;
+        try {
+            for (Future<Integer> f : pool.invokeAll(tasks)) changed += f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tablebase generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Tablebase generation failed", e.getCause());
+        }
+        return changed;
+    }
+
+    // ---------- Passes ----------
+    // Pass 0: illegal positions and stalemates are draws, the weak king with no move is mated
+    private boolean initialise(int idx, int[] p) {
+        decode(idx, p);
+        int stm = p[0], wk = p[1], bk = p[2], p1 = p[3], p2 = p[4];
+        if (!legal(stm, wk, bk, p1, p2)) {
+            values[idx] = DRAWN;
+            return true;
+        }
+        long occ = occupancy(wk, bk, p1, p2);
+        if (stm == 0) {
+            if (!strongHasMove(wk, bk, p1, p2, occ)) values[idx] = DRAWN;
+            return values[idx] != UNKNOWN;
+        }
+        long attacked = strongAttacks(wk, p1, p2, occ & ~(1L << bk));
+        if ((Attacks.KING[bk] & ~attacked) != 0) return false;
+        values[idx] = ((attacked & (1L << bk)) != 0) ? (byte) 1 : DRAWN;
+        return true;
+    }
+
+    // Odd pass k: the strong side wins in k if some move reaches a weak-side loss in k - 1
+    private boolean strongWins(int idx, int[] p, int k) {
+        decode(idx, p);
+        int wk = p[1], bk = p[2], p1 = p[3], p2 = p[4];
+        long occ = occupancy(wk, bk, p1, p2);
+        long own = occ & ~(1L << bk);
+
+        for (long to = Attacks.KING[wk] & ~own & ~Attacks.KING[bk]; to != 0; to &= to - 1) {
+            int sq = Long.numberOfTrailingZeros(to);
+            if (values[Tablebase.index(m, 1, sq, bk, p1, p2)] == k) return win(idx, k);
+        }
+        if (type1 == PieceType.PAWN) {
+            int push = p1 - 8;
+            if ((occ & (1L << push)) == 0) {
+                if (push < 8) {
+                    // promotion: continue in the queen and rook tables (minor pieces only draw)
+                    if (finished.get(Tablebase.Material.KQK)[Tablebase.index(Tablebase.Material.KQK, 1, wk, bk, push, -1)] == k
+                            || finished.get(Tablebase.Material.KRK)[Tablebase.index(Tablebase.Material.KRK, 1, wk, bk, push, -1)] == k) {
+                        return win(idx, k);
+                    }
+                } else {
+                    if (values[Tablebase.index(m, 1, wk, bk, push, p2)] == k) return win(idx, k);
+                    if (p1 >= 48 && (occ & (1L << (push - 8))) == 0
+                            && values[Tablebase.index(m, 1, wk, bk, push - 8, p2)] == k) {
+                        return win(idx, k);
+                    }
+                }
+            }
+            return false;
+        }
+        for (long to = pieceAttacks(type1, p1, occ) & ~occ; to != 0; to &= to - 1) {
+            int sq = Long.numberOfTrailingZeros(to);
+            if (values[Tablebase.index(m, 1, wk, bk, sq, p2)] == k) return win(idx, k);
+        }
+        if (type2 != null) {
+            for (long to = pieceAttacks(type2, p2, occ) & ~occ; to != 0; to &= to - 1) {
+                int sq = Long.numberOfTrailingZeros(to);
+                if (values[Tablebase.index(m, 1, wk, bk, p1, sq)] == k) return win(idx, k);
+            }
+        }
+        return false;
+    }
+
+    // Even pass k: the weak side loses in k if every move reaches a known win (captures draw)
+    private boolean weakLoses(int idx, int[] p, int k) {
+        decode(idx, p);
+        int wk = p[1], bk = p[2], p1 = p[3], p2 = p[4];
+        long occ = occupancy(wk, bk, p1, p2);
+        long pieces = (1L << p1) | (p2 >= 0 ? 1L << p2 : 0);
+        long attacked = strongAttacks(wk, p1, p2, occ & ~(1L << bk));
+        for (long to = Attacks.KING[bk] & ~attacked; to != 0; to &= to - 1) {
+            int sq = Long.numberOfTrailingZeros(to);
+            if ((pieces & (1L << sq)) != 0) return false; // capture leaves a drawn ending
+            if (values[Tablebase.index(m, 0, wk, sq, p1, p2)] <= 0) return false;
+        }
+        values[idx] = (byte) (k + 1);
+        return true;
+    }
+
+    private boolean win(int idx, int k) {
+        values[idx] = (byte) (k + 1);
+        return true;
+    }
+
+    // ---------- Position helpers ----------
+    // p = {stm, wk, bk, p1, p2}; p2 = -1 for one-piece sets
+    private void decode(int idx, int[] p) {
+        int p2 = -1;
+        if (type2 != null) {
+            p2 = idx & 63;
+            idx >>>= 6;
+        }
+        int p1 = idx & 63;
+        idx >>>= 6;
+        int bk = idx & 63;
+        idx >>>= 6;
+        int kings = m.kingSquares();
+        int king = idx % kings;
+        p[0] = idx / kings;
+        p[1] = m.pawns ? king : Tablebase.TRIANGLE[king];
+        p[2] = bk;
+        p[3] = p1;
+        p[4] = p2;
+    }
+
+    private boolean legal(int stm, int wk, int bk, int p1, int p2) {
+        if (wk == bk || wk == p1 || bk == p1) return false;
+        if (p2 >= 0 && (p2 == wk || p2 == bk || p2 == p1)) return false;
+        if ((Attacks.KING[wk] & (1L << bk)) != 0) return false;
+        if (type1 == PieceType.PAWN && (p1 < 8 || p1 >= 56)) return false;
+        // the side not to move may not be in check (the strong king only by the weak king)
+        long occ = occupancy(wk, bk, p1, p2);
+        return stm == 1 || (strongAttacks(wk, p1, p2, occ) & (1L << bk)) == 0;
+    }
+
+    private boolean strongHasMove(int wk, int bk, int p1, int p2, long occ) {
+        if ((Attacks.KING[wk] & ~occ & ~Attacks.KING[bk]) != 0) return true;
+        if (type1 == PieceType.PAWN) return (occ & (1L << (p1 - 8))) == 0;
+        if ((pieceAttacks(type1, p1, occ) & ~occ) != 0) return true;
+        return type2 != null && (pieceAttacks(type2, p2, occ) & ~occ) != 0;
+    }
+
+    private long strongAttacks(int wk, int p1, int p2, long occ) {
+        long a = Attacks.KING[wk] | pieceAttacks(type1, p1, occ);
+        return (type2 != null) ? a | pieceAttacks(type2, p2, occ) : a;
+    }
+
+    private static long pieceAttacks(PieceType type, int sq, long occ) {
+        return switch (type) {
+            case QUEEN -> Attacks.queen(sq, occ);
+            case ROOK -> Attacks.rook(sq, occ);
+            case BISHOP -> Attacks.bishop(sq, occ);
+            case KNIGHT -> Attacks.KNIGHT[sq];
+            case PAWN -> Attacks.PAWN[WHITE][sq];
+            case KING -> Attacks.KING[sq];
+        };
+    }
+
+    private static long occupancy(int wk, int bk, int p1, int p2) {
+        return (1L << wk) | (1L << bk) | (1L << p1) | (p2 >= 0 ? 1L << p2 : 0);
+    }
+
+    // ---------- Output ----------
+    static int longestMate(byte[] table) {
+        int max = 0;
+        for (byte v : table) max = Math.max(max, v);
+        return Math.max(0, max - 1);
+    }
+
+    /** Writes the table bit-packed; returns the file size in bytes. */
+    static long write(Path file, byte[] table) throws IOException {
+        int max = 1;
+        for (byte v : table) max = Math.max(max, v);
+        int bits = 32 - Integer.numberOfLeadingZeros(max);
+
+        byte[] data = new byte[(int) Tablebase.dataBytes(table.length, bits)];
+        long bit = 0;
+        for (byte v : table) {
+            // place the value's bits most significant first, possibly across two bytes
+            int word = (v & 0xFF) << (16 - bits - (int) (bit & 7));
+            int pos = (int) (bit >>> 3);
+            data[pos] |= (byte) (word >>> 8);
+            data[pos + 1] |= (byte) word;
+            bit += bits;
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(Tablebase.MAGIC);
+            out.writeInt(Tablebase.VERSION);
+            out.writeInt(bits);
+            out.writeInt(table.length);
+            out.write(data);
+        }
+        return Tablebase.HEADER_BYTES + data.length;
+    }
+}
@@ -0,0 +1,135 @@
+package logic;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+import objects.PieceColor;
+import objects.PieceType;
+
+/**
+ * Tablebases : the endgame tables found in one directory, probed straight from a Board.
+ *
+ * A probe works out which side is strong (the one with more than a bare king), mirrors
+ * the position if that is Black, and looks it up in the matching {@link Tablebase}.
+ * Bare kings and a lone minor piece are answered as draws without any table, so every
+ * move out of a covered position leads to a position that can be probed again.
+ */
+public final class Tablebases {
+    /** Probe result when no table covers the position. */
+    public static final int NOT_FOUND = -1;
+    /** Probe result for a draw. */
+    public static final int DRAW = 0;
+    /** Positions with more pieces than this (kings included) are never covered. */
+    public static final int MAX_PIECES = 4;
+
+    /** Where the games look for tables, relative to the working directory (like saves/). */
+    public static final Path DEFAULT_DIR = Path.of("tablebases");
+
+    private final Map<Tablebase.Material, Tablebase> tables = new EnumMap<>(Tablebase.Material.class);
+
+    private Tablebases() {}
+
+    /** Maps every table present in {@code dir}; missing tables are simply not available. */
+    public static Tablebases open(Path dir) throws IOException {
+        Tablebases set = new Tablebases();
+        for (Tablebase.Material m : Tablebase.Material.values()) {
+            Path file = dir.resolve(m.fileName());
+            if (Files.isRegularFile(file)) set.tables.put(m, Tablebase.open(m, file));
+        }
+        return set;
+    }
+
+    /** Opens {@link #DEFAULT_DIR}, or returns null if it holds no usable table. */
+    public static Tablebases openDefault() {
+        if (!Files.isDirectory(DEFAULT_DIR)) return null;
+        try {
+            Tablebases set = open(DEFAULT_DIR);
+            return set.tables.isEmpty() ? null : set;
+        } catch (IOException e) {
+            System.err.println("Error opening tablebases: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** True if a table for {@code m} was found. */
+    public boolean has(Tablebase.Material m) { return tables.containsKey(m); }
+
+    /**
+     * Looks the position up with {@code toMove} to move.
+     * @return {@link #NOT_FOUND}, {@link #DRAW}, or dtm + 1 (see {@link Tablebase}):
+     *         odd dtm = {@code toMove} mates in dtm plies, even dtm = it is mated in dtm plies
+     */
+    public int probe(Board b, PieceColor toMove) {
+        if (Long.bitCount(b.occupancy()) > MAX_PIECES) return NOT_FOUND;
+
+        PieceColor strong = (b.pieceCount(PieceColor.WHITE) >= b.pieceCount(PieceColor.BLACK))
+                ? PieceColor.WHITE : PieceColor.BLACK;
+        PieceColor weak = (strong == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        if (b.pieceCount(weak) != 1) return NOT_FOUND; // both sides have material
+        int extra = b.pieceCount(strong) - 1;
+        if (extra == 0) return DRAW;
+        if (extra == 1 && (b.pieces(strong, PieceType.BISHOP) | b.pieces(strong, PieceType.KNIGHT)) != 0) {
+            return DRAW; // a lone minor piece cannot mate
+        }
+
+        for (Map.Entry<Tablebase.Material, Tablebase> e : tables.entrySet()) {
+            Tablebase.Material m = e.getKey();
+            if (m.pieces.length != extra) continue;
+            int[] sq = new int[2];
+            boolean matches = true;
+            for (int i = 0; i < extra && matches; i++) {
+                long bb = b.pieces(strong, m.pieces[i]);
+                matches = Long.bitCount(bb) == 1;
+                sq[i] = Long.numberOfTrailingZeros(bb);
+            }
+            if (!matches) continue;
+
+            // the table's strong side is White: mirror the ranks when it is Black
+            int flip = (strong == PieceColor.WHITE) ? 0 : 56;
+            int stm = (toMove == strong) ? 0 : 1;
+            int index = Tablebase.index(m, stm, b.kingSquare(strong) ^ flip, b.kingSquare(weak) ^ flip,
+                    sq[0] ^ flip, extra == 2 ? sq[1] ^ flip : -1);
+            return e.getValue().value(index);
+        }
+        return NOT_FOUND;
+    }
+
+    /**
+     * The best move by the tables: the fastest mate when winning, the slowest when losing,
+     * any drawing move otherwise. {@code b} is not changed: the moves are tried on a copy.
+     * @return the legal generated move, or {@link Move#NONE} if the position (or one of its
+     *         successors) is not covered, or there is no legal move
+     */
+    public int bestMove(Board b, PieceColor toMove) {
+        if (probe(b, toMove) == NOT_FOUND) return Move.NONE;
+        Board work = b.deepCopy(); // the caller's board may be the live game (or being painted)
+        PieceColor other = (toMove == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        MoveList moves = new MoveList();
+        int n = MoveGenerator.generateLegal(work, toMove, moves);
+        int best = Move.NONE;
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            int undo = work.makeMove(move);
+            int value = probe(work, other);
+            work.unmakeMove(undo);
+            if (value == NOT_FOUND) return Move.NONE;
+            int score = scoreForMover(value);
+            if (score > bestScore) {
+                bestScore = score;
+                best = move;
+            }
+        }
+        return best;
+    }
+
+    // Value of the position after a move (opponent to move), from the mover's side:
+    // quicker wins and slower losses score higher, draws are 0
+    private static int scoreForMover(int value) {
+        if (value == DRAW) return 0;
+        int dtm = value - 1;
+        return (dtm % 2 == 0) ? 1000 - dtm : -(1000 - dtm);
+    }
+}
@@ -0,0 +1,34 @@
+package logic;
+
+import java.util.SplittableRandom;
+import objects.PieceColor;
+
+/**
+ * Zobrist : random 64-bit keys used to hash positions incrementally.
+ * Board XORs PIECE[code][square] in and out on every change, so its key is always
+ * current in O(1). The side to move is not part of the board; XOR {@link #sideKey}
+ * in when a key must distinguish whose turn it is (GameSession, search).
+ *
+ * A fixed seed keeps keys identical across runs, so they can be stored in files.
+ */
+public final class Zobrist {
+    private Zobrist() {}
+
+    /** Key per piece code (0..11) and square (0..63). */
+    static final long[][] PIECE = new long[12][64];
+    /** XORed in when Black is to move. */
+    public static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom rnd = new SplittableRandom(0x5EEDC4E55L);
+        for (int code = 0; code < 12; code++) {
+            for (int sq = 0; sq < 64; sq++) PIECE[code][sq] = rnd.nextLong();
+        }
+        BLACK_TO_MOVE = rnd.nextLong();
+    }
+
+    /** Side-to-move component of a position key. */
+    public static long sideKey(PieceColor toMove) {
+        return toMove == PieceColor.BLACK ? BLACK_TO_MOVE : 0L;
+    }
+}
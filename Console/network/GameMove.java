@@ -1,6 +1,8 @@
 package network;
 
 import java.io.Serializable;
+import logic.Move;
+import objects.PieceType;
 
 /**
  * game move representation for a board game
@@ -14,6 +16,7 @@ public class GameMove implements Serializable {
     private int endCol;
     private long timestamp;
     private String playerId;
+    private PieceType promotion; // piece a pawn promotes to, null for other moves
     
     public GameMove(int startRow, int startCol, int endRow, int endCol) {
         this.startRow = startRow;
@@ -28,6 +31,23 @@ public class GameMove implements Serializable {
         this.playerId = playerId;
     }
     
+    /**
+     * build a GameMove from a packed {@link Move} int, keeping its promotion piece
+     */
+    public static GameMove fromMove(int move, String playerId) {
+        int from = Move.from(move), to = Move.to(move);
+        GameMove gameMove = new GameMove(from >> 3, from & 7, to >> 3, to & 7, playerId);
+        gameMove.promotion = Move.promotion(move);
+        return gameMove;
+    }
+    
+    /**
+     * packed {@link Move} form of this move (from/to squares and promotion piece)
+     */
+    public int toMove() {
+        return Move.of(startRow * 8 + startCol, endRow * 8 + endCol, promotion);
+    }
+    
     // Getters and Setters
     public int getStartRow() { return startRow; }
     public void setStartRow(int startRow) { this.startRow = startRow; }
@@ -47,15 +67,20 @@ public class GameMove implements Serializable {
     public String getPlayerId() { return playerId; }
     public void setPlayerId(String playerId) { this.playerId = playerId; }
     
+    public PieceType getPromotion() { return promotion; }
+    public void setPromotion(PieceType promotion) { this.promotion = promotion; }
+    
     /**
-     * acquire the algebraic notation of the move (e.g., "e2-e4")
+     * acquire the algebraic notation of the move (e.g., "e2-e4", "e7-e8=Q")
      */
     public String getNotation() {
         char startFile = (char)('a' + startCol);
         char endFile = (char)('a' + endCol);
         int startRank = 8 - startRow;
         int endRank = 8 - endRow;
-        return String.format("%c%d-%c%d", startFile, startRank, endFile, endRank);
+        String notation = String.format("%c%d-%c%d", startFile, startRank, endFile, endRank);
+        if (promotion == null) return notation;
+        return notation + "=" + (promotion == PieceType.KNIGHT ? 'N' : promotion.name().charAt(0));
     }
     
     /**
@@ -79,12 +104,13 @@ public class GameMove implements Serializable {
         return startRow == move.startRow && 
                startCol == move.startCol && 
                endRow == move.endRow && 
-               endCol == move.endCol;
+               endCol == move.endCol &&
+               promotion == move.promotion;
     }
     
     @Override
     public int hashCode() {
-        return java.util.Objects.hash(startRow, startCol, endRow, endCol);
+        return java.util.Objects.hash(startRow, startCol, endRow, endCol, promotion);
     }
     
     @Override
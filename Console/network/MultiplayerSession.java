@@ -120,8 +120,8 @@ public class MultiplayerSession {
         // Execute local move
         boolean success = gameSession.playMove(startRow, startCol, endRow, endCol);
         if (success) {
-            // Send move to opponent
-            network.sendMove(startRow, startCol, endRow, endCol);
+            // Send move to opponent, as recorded (with the promotion piece actually chosen)
+            network.sendMove(GameMove.fromMove(gameSession.getLastMove(), myPlayerId));
             isMyTurn = false;
             waitingForOpponent = true;
             
@@ -193,9 +193,8 @@ public class MultiplayerSession {
             return;
         }
         
-        // execute opponent move
-        boolean success = gameSession.playMove(move.getStartRow(), move.getStartCol(), 
-                                             move.getEndRow(), move.getEndCol());
+        // execute opponent move (a promotion takes the opponent's piece, nobody is asked here)
+        boolean success = gameSession.playMove(move.toMove());
         if (success) {
             isMyTurn = true;
             waitingForOpponent = false;
@@ -177,8 +177,7 @@ public class NetworkConnection {
     /**
      * send game move
      */
-    public boolean sendMove(int startRow, int startCol, int endRow, int endCol) {
-        GameMove move = new GameMove(startRow, startCol, endRow, endCol);
+    public boolean sendMove(GameMove move) {
         NetworkMessage message = new NetworkMessage(NetworkMessage.Type.GAME_MOVE, move, connectionId);
         return sendMessage(message);
     }
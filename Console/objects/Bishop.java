@@ -1,5 +1,6 @@
 package objects;
 
+import logic.Attacks;
 import logic.Board;
 /** Represents a bishop chess piece.    */
 
@@ -18,11 +19,10 @@ public class Bishop extends Piece {
     
     @Override
     public boolean canMove(Board board, int sr, int sc, int er, int ec) {
-        // bishops move any number of squares diagonally
-        if (Math.abs(er - sr) != Math.abs(ec - sc)) return false;
-
-        // path must be clear (not including start and end)
-        if (!isPathClear(board, sr, sc, er, ec)) return false;
+        if (!inside(sr, sc) || !inside(er, ec)) return false;
+        // bishops move any number of squares diagonally;
+        // one magic-bitboard lookup covers both the geometry and a clear path
+        if ((Attacks.bishop(sr * 8 + sc, board.occupancy()) & (1L << (er * 8 + ec))) == 0) return false;
 
         // destination must be empty or contain an opponent's piece
         return canCaptureOrMove(board, er, ec);
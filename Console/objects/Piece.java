@@ -1,5 +1,6 @@
 package objects;
 
+import logic.Attacks;
 import logic.Board;
 
 /** Abstract base class for chess pieces. */
@@ -58,20 +59,12 @@ public abstract class Piece implements Moveable {
         if (!inside(sr, sc) || !inside(er, ec)) return false;
         if (sr == er && sc == ec) return false; // zero-displacement is not a move
 
-        int dr = Integer.compare(er, sr); // -1,0,1
-        int dc = Integer.compare(ec, sc); // -1,0,1
-
         boolean straight = (sr == er) || (sc == ec);
         boolean diagonal = Math.abs(er - sr) == Math.abs(ec - sc);
         if (!straight && !diagonal) return false;
 
-        int r = sr + dr, c = sc + dc;
-        while (r != er || c != ec) {
-            if (!inside(r, c)) return false;            // ✅ safety for completeness
-            if (board.getPieceAt(r, c) != null) return false;
-            r += dr; c += dc;
-        }
-        return true;
+        // precomputed in-between mask: one AND instead of stepping square by square
+        return (Attacks.BETWEEN[sr * 8 + sc][er * 8 + ec] & board.occupancy()) == 0;
     }
 
     /** String representation: uppercase for white, lowercase for black. */
@@ -1,5 +1,6 @@
 package objects;
 
+import logic.Attacks;
 import logic.Board;
 /** Represents a queen chess piece. */
 
@@ -17,15 +18,10 @@ public class Queen extends Piece {
      */
     @Override
     public boolean canMove(Board board, int sr, int sc, int er, int ec) {
-        // Queens move any number of squares along a rank, file, or diagonal
-
-        // check move type
-        boolean straight = (sr == er || sc == ec);
-        boolean diagonal = Math.abs(er - sr) == Math.abs(ec - sc);
-        if (!straight && !diagonal) return false;
-
-        // check path is clear
-        if (!isPathClear(board, sr, sc, er, ec)) return false;
+        if (!inside(sr, sc) || !inside(er, ec)) return false;
+        // Queens move any number of squares along a rank, file, or diagonal;
+        // one magic-bitboard lookup covers both the geometry and a clear path
+        if ((Attacks.queen(sr * 8 + sc, board.occupancy()) & (1L << (er * 8 + ec))) == 0) return false;
         // check destination square
         return canCaptureOrMove(board, er, ec);
     }
@@ -1,5 +1,6 @@
 package objects;
 
+import logic.Attacks;
 import logic.Board;
 
 /** Represents a rook chess piece. */
@@ -19,10 +20,10 @@ public class Rook extends Piece {
     @Override
     public boolean canMove(Board board, int sr, int sc, int er, int ec) {
         
-        // Rooks move any number of squares along a rank or file
-        if (sr != er && sc != ec) return false; 
-        // Check path is clear
-        if (!isPathClear(board, sr, sc, er, ec)) return false;
+        if (!inside(sr, sc) || !inside(er, ec)) return false;
+        // Rooks move any number of squares along a rank or file;
+        // one magic-bitboard lookup covers both the geometry and a clear path
+        if ((Attacks.rook(sr * 8 + sc, board.occupancy()) & (1L << (er * 8 + ec))) == 0) return false;
         // Check destination square
         return canCaptureOrMove(board, er, ec);
     }
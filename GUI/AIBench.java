@@ -0,0 +1,138 @@
+package GUI;
+
+import logic.Board;
+import logic.Fen;
+import objects.PieceColor;
+
+/**
+ * Headless benchmark for {@link MinimaxAIOpponent}: searches a fixed set of positions and
+ * prints nodes, time, nodes/second and transposition / pawn hash table hit rates per position.
+ * Every position is searched three times: without staged move ordering, with it, and with
+ * null-move pruning and late move reductions on top, to show what each saves (the last run
+ * also prints how often the null move cut and how many reduced moves were re-searched).
+ * With more than one thread the last two runs use Lazy SMP and the node counts include the
+ * helper threads. At a fixed depth the positions are also
+ * searched by {@link ParallelRootAIOpponent}, single-threaded and with the thread count.
+ * With a move time the search deepens until the time is up and the depth reached is shown.
+ *
+ * Usage (from the compiled output directory):
+ *   java -cp out GUI.AIBench [depth] [hashMB] [movetimeMs] [threads]
+ */
+public final class AIBench {
+    private AIBench() {}
+
+    private static final String[] FENS = {
+        Fen.START,
+        "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3",
+        "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1"
+    };
+
+    public static void main(String[] args) {
+        int depth = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+        int hashMb = (args.length > 1) ? Integer.parseInt(args[1]) : MinimaxAIOpponent.DEFAULT_HASH_MB;
+        long moveTime = (args.length > 2) ? Long.parseLong(args[2]) : 0;
+        int threads = (args.length > 3) ? Integer.parseInt(args[3]) : 1;
+
+        System.out.println("Depth " + depth + ", hash " + hashMb + " MB"
+                + (moveTime > 0 ? ", " + moveTime + " ms per move" : "") + ", " + threads + " thread(s)");
+        long[] unordered = run(depth, hashMb, moveTime, 1, false, false);
+        long[] ordered = run(depth, hashMb, moveTime, threads, true, false);
+        long[] selective = run(depth, hashMb, moveTime, threads, true, true);
+        if (moveTime == 0) { // node counts are only comparable at a fixed depth
+            System.out.printf("Move ordering: %,d -> %,d nodes (%.1f%% of the unordered search)%n",
+                    unordered[0], ordered[0], 100.0 * ordered[0] / Math.max(1, unordered[0]));
+            System.out.printf("Null move + LMR: %,d -> %,d nodes (%.1f%% of the full-width search)%n",
+                    ordered[0], selective[0], 100.0 * selective[0] / Math.max(1, ordered[0]));
+            // fork/join root splitting for comparison: one thread, then the requested count
+            long[] serial = runParallelRoot(depth, 1);
+            if (threads > 1) {
+                long[] parallel = runParallelRoot(depth, threads);
+                System.out.printf("Root splitting speedup on %d threads: %.2fx%n",
+                        threads, (double) serial[1] / Math.max(1, parallel[1]));
+            }
+        }
+    }
+
+    /** Fixed-depth search with {@link ParallelRootAIOpponent}; returns {total nodes, total nanos}. */
+    private static long[] runParallelRoot(int depth, int threads) {
+        long totalNodes = 0, totalNanos = 0;
+        Board board = new Board();
+        System.out.println("-- parallel root split, " + threads + " thread(s) --");
+        ParallelRootAIOpponent ai = new ParallelRootAIOpponent(depth, threads);
+        for (String fen : FENS) {
+            PieceColor toMove = Fen.load(board, fen);
+            long start = System.nanoTime();
+            int[] move = ai.chooseMove(board, toMove);
+            long nanos = System.nanoTime() - start;
+            long nodes = ai.lastNodes();
+            totalNodes += nodes;
+            totalNanos += nanos;
+            System.out.printf("%-8s d%-2d %,12d nodes  %s  [%s]%n", moveText(move), depth, nodes, rate(nodes, nanos), fen);
+        }
+        ai.close();
+        System.out.printf("Total: %,d nodes, %s%n", totalNodes, rate(totalNodes, totalNanos));
+        return new long[]{totalNodes, totalNanos};
+    }
+
+    /** Searches every position once; returns {total nodes, total nanos}. */
+    private static long[] run(int depth, int hashMb, long moveTime, int threads, boolean ordering, boolean selective) {
+        long totalNodes = 0, totalNanos = 0;
+        long nullTries = 0, nullCutoffs = 0, lmrReduced = 0, lmrResearched = 0;
+        long pvsResearched = 0, aspirationResearched = 0, seePruned = 0;
+        Board board = new Board();
+        System.out.println(selective ? "-- staged move ordering, null move + LMR --"
+                : ordering ? "-- staged move ordering --" : "-- hash move only --");
+        for (String fen : FENS) {
+            // a fresh AI per position, so every search starts from an empty table
+            MinimaxAIOpponent ai = new MinimaxAIOpponent(depth, hashMb, moveTime);
+            ai.setMoveOrdering(ordering);
+            ai.setThreadCount(threads);
+            ai.setOpeningBook(null); // measure the search, also in the start position
+            ai.setNullMovePruning(selective);
+            ai.setLateMoveReductions(selective);
+            PieceColor toMove = Fen.load(board, fen);
+            long start = System.nanoTime();
+            int[] move = ai.chooseMove(board, toMove);
+            long nanos = System.nanoTime() - start;
+
+            TranspositionTable tt = ai.table();
+            long nodes = ai.lastNodes();
+            totalNodes += nodes;
+            totalNanos += nanos;
+            nullTries += ai.lastNullTries();
+            nullCutoffs += ai.lastNullCutoffs();
+            lmrReduced += ai.lastLmrReduced();
+            lmrResearched += ai.lastLmrResearched();
+            pvsResearched += ai.lastPvsResearched();
+            aspirationResearched += ai.lastAspirationResearched();
+            seePruned += ai.lastSeePruned();
+            double hitRate = tt.probes() == 0 ? 0 : 100.0 * tt.hits() / tt.probes();
+            PawnHashTable pawns = ai.pawnTable();
+            double pawnHitRate = pawns.probes() == 0 ? 0 : 100.0 * pawns.hits() / pawns.probes();
+            System.out.printf("%-8s d%-2d %,12d nodes  %s  TT hits %.1f%%  pawn hits %.1f%%  [%s]%n",
+                    moveText(move), ai.lastDepth(), nodes, rate(nodes, nanos), hitRate, pawnHitRate, fen);
+            System.out.println("         " + ai.lastPrincipalVariation());
+        }
+        System.out.printf("Total: %,d nodes, %s%n", totalNodes, rate(totalNodes, totalNanos));
+        System.out.printf("PVS re-searches: %,d  aspiration re-searches: %,d  losing captures skipped (SEE): %,d%n",
+                pvsResearched, aspirationResearched, seePruned);
+        if (selective) {
+            System.out.printf("Null move: %,d tried, %,d cut (%.1f%%)  LMR: %,d reduced, %,d re-searched (%.1f%%)%n",
+                    nullTries, nullCutoffs, 100.0 * nullCutoffs / Math.max(1, nullTries),
+                    lmrReduced, lmrResearched, 100.0 * lmrResearched / Math.max(1, lmrReduced));
+        }
+        return new long[]{totalNodes, totalNanos};
+    }
+
+    private static String moveText(int[] m) {
+        if (m == null) return "(none)";
+        return "" + (char) ('a' + m[1]) + (8 - m[0]) + (char) ('a' + m[3]) + (8 - m[2]);
+    }
+
+    private static String rate(long nodes, long nanos) {
+        double seconds = Math.max(nanos, 1) / 1e9;
+        return String.format("%.3f s, %,.0f nodes/s", seconds, nodes / seconds);
+    }
+}
@@ -1,6 +1,9 @@
 package GUI;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import logic.Board;
+import logic.Move;
 import objects.PieceColor;
 
 /**
@@ -11,7 +14,9 @@ import objects.PieceColor;
  * - Coordinate system uses 0-based rows/cols with row 0 at the top and col 0 at the left.
  * - Return value is an int array of length 4: {startRow, startCol, endRow, endCol}.
  * - Return {@code null} if no legal move is available (e.g., checkmate or stalemate).
- * - Threading: current usage calls this on the EDT; heavy AIs should be run off-EDT.
+ * - Threading: the GUI calls {@link #chooseMoveAsync} so the search runs off the EDT, one
+ *   search at a time per AI instance; {@link #stop()} may be called from any thread.
+ * - Pondering: AIs may also think on the opponent's time ({@link #ponderAsync}).
  */
 public interface AIOpponent {
     /**
@@ -21,4 +26,73 @@ public interface AIOpponent {
      * @return {sr, sc, er, ec} or {@code null} when no move is available
      */
     int[] chooseMove(Board board, PieceColor aiColor);
+
+    /**
+     * Choose a move within a time budget. AIs that cannot bound their thinking time
+     * ignore the budget and behave like {@link #chooseMove(Board, PieceColor)}.
+     * @param moveTimeMillis wall-clock budget for this move in milliseconds
+     */
+    default int[] chooseMove(Board board, PieceColor aiColor, long moveTimeMillis) {
+        return chooseMove(board, aiColor);
+    }
+
+    /**
+     * Ask a running search to finish as soon as possible (may be called from another thread).
+     * The interrupted call still returns the best move found so far. Default: no-op.
+     */
+    default void stop() {}
+
+    /**
+     * A new game starts: forget what earlier searches learned (e.g. transposition table
+     * entries and their mate scores). Called between searches, never during one. Default: no-op.
+     */
+    default void newGame() {}
+
+    /**
+     * The AI will not be asked for moves again: release its threads. Called after its last
+     * search has finished. Default: no-op.
+     */
+    default void close() {}
+
+    /**
+     * A one-line description of what the last search expected to happen (its principal
+     * variation), for display; null when the AI has none to report (the default).
+     */
+    default String lastPrincipalVariation() {
+        return null;
+    }
+
+    /**
+     * Choose a move on {@code executor} instead of the calling thread. The board is copied
+     * first, so the caller may keep changing its own board while the search runs.
+     * Cancelling the returned future stops the search cooperatively ({@link #stop()}); a
+     * search that had not started yet is skipped. Completes with null when no move exists.
+     * @param executor where the search runs; use one thread per AI, searches are not reentrant
+     */
+    default CompletableFuture<int[]> chooseMoveAsync(Board board, PieceColor aiColor, Executor executor) {
+        return AsyncSearch.submit(this, board, executor, (snapshot, cancelled) -> chooseMove(snapshot, aiColor));
+    }
+
+    // ---------- Pondering (optional) ----------
+    /**
+     * The opponent's expected reply in {@code board} (the position after the AI's own move),
+     * as a packed {@link Move}, or {@link Move#NONE} when there is no guess. Default: none.
+     */
+    default int predictReply(Board board, PieceColor opponent) {
+        return Move.NONE;
+    }
+
+    /**
+     * Start thinking about {@code predicted} (the position after the expected reply, AI to
+     * move) while the opponent is still on the move. The search keeps going until
+     * {@link #ponderHit()} turns it into a normal search, whose move the future then
+     * completes with; on a different reply the caller cancels the future.
+     * @return the ponder search, or null if this AI does not ponder (the default)
+     */
+    default CompletableFuture<int[]> ponderAsync(Board predicted, PieceColor aiColor, Executor executor) {
+        return null;
+    }
+
+    /** The expected reply was played: finish the ponder search like a normal one. */
+    default void ponderHit() {}
 }
@@ -0,0 +1,57 @@
+package GUI;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import logic.Board;
+
+/**
+ * Runs one {@link AIOpponent} search on an executor behind a {@link CompletableFuture}
+ * (see {@link AIOpponent#chooseMoveAsync}).
+ *
+ * The search gets its own copy of the board and a cancellation check it may poll; an AI
+ * that does not poll is stopped through {@link AIOpponent#stop()} instead, but only while
+ * this search is the one running, so cancelling a queued search cannot stop the one ahead.
+ * The stop is sent under the same lock the task takes on its way out, so a late stop
+ * cannot reach the next search started on the executor after it.
+ */
+final class AsyncSearch {
+    private AsyncSearch() {}
+
+    /** The search to run: returns {sr, sc, er, ec} or null, and may poll {@code cancelled}. */
+    interface Task {
+        int[] run(Board snapshot, BooleanSupplier cancelled);
+    }
+
+    static CompletableFuture<int[]> submit(AIOpponent ai, Board board, Executor executor, Task task) {
+        Board snapshot = board.deepCopy();
+        CompletableFuture<int[]> result = new CompletableFuture<>();
+        Running running = new Running();
+        executor.execute(() -> {
+            running.set(true);
+            try {
+                if (result.isDone()) return; // cancelled while queued
+                result.complete(task.run(snapshot, result::isCancelled));
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            } finally {
+                running.set(false);
+            }
+        });
+        result.whenComplete((move, error) -> {
+            if (result.isCancelled()) running.stopIfRunning(ai);
+        });
+        return result;
+    }
+
+    // Whether the task is on the executor thread; set and checked under one lock
+    private static final class Running {
+        private boolean running;
+
+        synchronized void set(boolean value) { running = value; }
+
+        synchronized void stopIfRunning(AIOpponent ai) {
+            if (running) ai.stop();
+        }
+    }
+}
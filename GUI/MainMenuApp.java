@@ -127,11 +127,26 @@ class MainMenuFrame extends JFrame {
 
         // Open single player (AI-ready) game window
         SwingUtilities.invokeLater(() -> {
-            // Prompt for Minimax depth (2 / 3 / 4)
-            String[] depths = {"Depth 2", "Depth 3", "Depth 4"};
+            // Prompt for Minimax depth (2 / 3 / 4) or a time per move, and transposition table size
+            String[] depths = {"Depth 2", "Depth 3", "Depth 4", "1 s / move", "3 s / move"};
+            Integer[] hashSizes = {16, 64, 256};
+            JComboBox<Integer> hashBox = new JComboBox<>(hashSizes);
+            JPanel hashRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+            hashRow.add(new JLabel("Hash table (MB): "));
+            hashRow.add(hashBox);
+            // search threads: 1 up to the number of cores (Lazy SMP helpers beyond the first)
+            int cores = Runtime.getRuntime().availableProcessors();
+            JComboBox<Integer> threadBox = new JComboBox<>();
+            for (int t = 1; t < cores; t *= 2) threadBox.addItem(t);
+            threadBox.addItem(cores);
+            hashRow.add(new JLabel("   Threads: "));
+            hashRow.add(threadBox);
+            // alternative parallel engine: deterministic root splitting, fixed depths only
+            JCheckBox rootSplitBox = new JCheckBox("Split root moves across threads (fixed depth only)");
+            Object[] message = {"Select Minimax search depth or think time:", hashRow, rootSplitBox};
             int choice = JOptionPane.showOptionDialog(
                 this,
-                "Select Minimax search depth:",
+                message,
                 "AI Difficulty",
                 JOptionPane.DEFAULT_OPTION,
                 JOptionPane.QUESTION_MESSAGE,
@@ -143,6 +158,11 @@ class MainMenuFrame extends JFrame {
             if (choice == 0) depth = 2;
             else if (choice == 1) depth = 3;
             else if (choice == 2) depth = 4;
+            long moveTimeMillis = 0; // fixed depth unless a timed option was picked
+            if (choice == 3) moveTimeMillis = 1000;
+            else if (choice == 4) moveTimeMillis = 3000;
+            int hashMb = (Integer) hashBox.getSelectedItem();
+            int threads = (Integer) threadBox.getSelectedItem();
 
             // Prompt for AI side (default: Black so player moves first)
             Object[] sides = {"AI plays Black (default)", "AI plays White"};
@@ -161,7 +181,17 @@ class MainMenuFrame extends JFrame {
             // Default: AI plays Black using Minimax (depth 3)
             try {
                 objects.PieceColor aiColor = (sideIdx == 1) ? objects.PieceColor.WHITE : objects.PieceColor.BLACK;
-                aiWindow.setAIOpponent(new MinimaxAIOpponent(depth), aiColor);
+                AIOpponent ai;
+                if (rootSplitBox.isSelected() && moveTimeMillis == 0) {
+                    ai = new ParallelRootAIOpponent(depth, threads);
+                } else {
+                    MinimaxAIOpponent minimax = (moveTimeMillis > 0)
+                            ? MinimaxAIOpponent.withMoveTime(moveTimeMillis, hashMb)
+                            : new MinimaxAIOpponent(depth, hashMb);
+                    minimax.setThreadCount(threads);
+                    ai = minimax;
+                }
+                aiWindow.setAIOpponent(ai, aiColor);
             } catch (Throwable t) {
                 // If anything goes wrong, continue without AI
             }
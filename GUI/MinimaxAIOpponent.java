@@ -1,27 +1,166 @@
 package GUI;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
 import logic.Board;
-import logic.Rules;
+import logic.Move;
+import logic.MoveGenerator;
+import logic.MoveList;
+import logic.OpeningBook;
+import logic.Tablebases;
+import logic.Zobrist;
 import objects.*;
 
 /**
  * A concrete {@link AIOpponent} using Negamax with alpha-beta pruning.
  *
  * Characteristics:
- * - Search: depth-limited negamax; alpha-beta pruning for speedups.
- * - Evaluation: simple material balance (+ small penalty if the side to move is in check).
- * - Legality: skips moves that leave own king in check.
- * - Performance: depth is constructor-configurable; higher depth costs more CPU.
+ * - Search: depth-limited negamax; alpha-beta pruning for speedups (see {@link SearchWorker}).
+ * - Principal variation search: only the first move of a node gets the full window, the
+ *   rest are zero-window probes re-searched on a fail high; each iteration starts from an
+ *   aspiration window around the previous score. The line the search expects is reported
+ *   by {@link #lastPrincipalVariation()}.
+ * - Transposition table: positions reached through different move orders are looked up
+ *   by Zobrist key instead of searched again; the table size is set in megabytes.
+ * - Move ordering: hash move, MVV-LVA captures, killer moves, history, then captures that
+ *   lose material by static exchange evaluation (see {@link MoveOrderer}, {@link logic.See}).
+ *   Such losing captures are also skipped near the horizon and in the quiescence search.
+ * - Iterative deepening: searches depth 1, 2, 3... up to the maximum depth, or until the
+ *   move time runs out; the best move of the last completed iteration is played.
+ * - Selective search: null-move pruning and late move reductions (both on by default,
+ *   each can be switched off) let the search reach deeper on the same node budget.
+ * - Quiescence search: at depth 0 captures (and queen promotions) are resolved before the
+ *   position is evaluated, with stand-pat cutoffs, delta pruning and a maximum depth.
+ * - Parallel search (Lazy SMP): with more than one thread, helper threads search the same
+ *   root with staggered depths and root orderings and share the transposition table; the
+ *   calling thread's result is played and the helpers stop when it is done.
+ * - Evaluation: tapered material + piece-square tables, maintained incrementally by the board,
+ *   plus pawn structure (doubled/isolated/backward/passed) cached in a pawn hash table.
+ * - Opening book: while the position is in the book ({@link OpeningBook#DEFAULT_PATH} if
+ *   present), a book move is played at once, chosen at random by how often it was played.
+ * - Endgame tablebases: with at most four pieces left (KQK, KRK, KPK, KBNK), moves come
+ *   straight from the distance-to-mate tables in {@link Tablebases#DEFAULT_DIR} if they were
+ *   generated, and the search scores such positions exactly instead of searching them.
+ * - Legality: only fully legal moves are generated (checks and pins handled up front).
+ * - Pondering: after its move the AI can search the position after the reply it expects
+ *   (the hash move) on the opponent's time; on a hit that search simply carries on as the
+ *   real one, on a miss it is cancelled and only its table entries remain.
+ * - Performance: depth, move time and thread count are configurable.
  *
  * Notes:
- * - This AI treats the provided Board as read-only and operates on deep copies for simulation.
+ * - This AI treats the provided Board as read-only: every search thread takes its own
+ *   deep copy and simulates moves on it with make/unmake.
+ * - The transposition table is kept between moves of the same game.
  * - It returns null when no legal move exists (checkmate/stalemate).
  */
 public class MinimaxAIOpponent implements AIOpponent {
+    /** Default transposition table size in megabytes. */
+    public static final int DEFAULT_HASH_MB = 16;
+
+    static final int MATE = SearchWorker.MATE;
+
+    // mapped once and shared by every AI instance; null when there is no book file
+    private static final OpeningBook DEFAULT_BOOK = OpeningBook.openDefault();
+    private static final Tablebases DEFAULT_TABLEBASES = Tablebases.openDefault();
+
     private final int maxDepth;
+    private final long moveTimeMillis; // 0 = no time limit
+    private final TranspositionTable tt;
+    private SearchWorker[] workers;    // [0] runs on the calling thread, the rest are helpers
+    private OpeningBook book = DEFAULT_BOOK;
+    private Tablebases tablebases = DEFAULT_TABLEBASES;
+    private boolean ordering = true;
+    private boolean nullMove = true;
+    private boolean lateMoveReductions = true;
+    private long nodes;                // nodes visited by the last chooseMove call (all threads)
+    private long nullTries, nullCutoffs, lmrReduced, lmrResearched; // same, selective-search counts
+    private long pvsResearched, aspirationResearched;                // same, window re-searches
+    private long seePruned;                                          // same, losing captures skipped
+    private int completedDepth;        // deepest iteration completed by the main worker
+    private volatile String principalVariation; // of the last search, for display
+
+    // abort handling: stop(), cancellation or the deadline ends the whole search, mainDone only the helpers
+    private volatile boolean stopped;
+    private volatile boolean mainDone;
+    private volatile BooleanSupplier cancelled = () -> false;
+    private volatile long deadline;
+
+    // pondering (guarded by this): the running search ignores the clock until ponderHit()
+    private boolean pondering;
+    private boolean ponderHit;
+    private long searchStart;
+    private long searchMoveTime;
 
     public MinimaxAIOpponent(int depth) {
-        this.maxDepth = Math.max(1, depth);
+        this(depth, DEFAULT_HASH_MB);
+    }
+
+    /**
+     * @param depth        search depth in plies
+     * @param hashMegabytes transposition table size in megabytes
+     */
+    public MinimaxAIOpponent(int depth, int hashMegabytes) {
+        this(depth, hashMegabytes, 0);
+    }
+
+    /**
+     * @param depth          maximum search depth in plies
+     * @param hashMegabytes  transposition table size in megabytes
+     * @param moveTimeMillis time budget per move in milliseconds, 0 for none
+     */
+    public MinimaxAIOpponent(int depth, int hashMegabytes, long moveTimeMillis) {
+        this.maxDepth = Math.max(1, Math.min(depth, SearchWorker.MAX_DEPTH));
+        this.moveTimeMillis = Math.max(0, moveTimeMillis);
+        this.tt = new TranspositionTable(hashMegabytes);
+        setThreadCount(1);
+    }
+
+    /** An AI limited only by time: deepens until {@code moveTimeMillis} is used up. */
+    public static MinimaxAIOpponent withMoveTime(long moveTimeMillis, int hashMegabytes) {
+        return new MinimaxAIOpponent(SearchWorker.MAX_DEPTH, hashMegabytes, moveTimeMillis);
+    }
+
+    /**
+     * Number of search threads (1 = single-threaded). Extra threads are Lazy SMP helpers that
+     * share the transposition table; they are started per move and finish with it.
+     */
+    public void setThreadCount(int threads) {
+        workers = new SearchWorker[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new SearchWorker(this::shouldStop, tt, i);
+            workers[i].ordering = ordering;
+            workers[i].tablebases = tablebases;
+            workers[i].nullMove = nullMove;
+            workers[i].lateMoveReductions = lateMoveReductions;
+        }
+    }
+
+    public int getThreadCount() {
+        return workers.length;
+    }
+
+    /** Null-move pruning on or off (on by default). */
+    public void setNullMovePruning(boolean enabled) {
+        nullMove = enabled;
+        for (SearchWorker w : workers) w.nullMove = enabled;
+    }
+
+    /** Late move reductions on or off (on by default). */
+    public void setLateMoveReductions(boolean enabled) {
+        lateMoveReductions = enabled;
+        for (SearchWorker w : workers) w.lateMoveReductions = enabled;
+    }
+
+    /** Endgame tables probed at the root and in the search; null disables them. */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+        for (SearchWorker w : workers) w.tablebases = tablebases;
+    }
+
+    /** Book consulted before searching; null disables the book. */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
     }
 
     /**
@@ -30,95 +169,206 @@ public class MinimaxAIOpponent implements AIOpponent {
      */
     @Override
     public int[] chooseMove(Board board, PieceColor aiColor) {
-        int bestScore = Integer.MIN_VALUE;
-        int[] bestMove = null;
-
-        // Generate legal moves for aiColor
-        for (Piece p : board.getPiecesByColor(aiColor)) {
-            int sr = p.getX(), sc = p.getY();
-            for (int er = 0; er < 8; er++) {
-                for (int ec = 0; ec < 8; ec++) {
-                    if (!p.canMove(board, sr, sc, er, ec)) continue;
-
-                    Board trial = board.deepCopy();
-                    trial.movePiece(sr, sc, er, ec);
-                    // Illegal if leaves own king in check
-                    if (Rules.isInCheck(trial, aiColor)) continue;
-
-                    int score = -negamax(trial, flip(aiColor), maxDepth - 1, Integer.MIN_VALUE + 1, Integer.MAX_VALUE - 1);
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestMove = new int[]{sr, sc, er, ec};
-                    }
-                }
+        return chooseMove(board, aiColor, moveTimeMillis);
+    }
+
+    /**
+     * Iterative deepening within {@code moveTimeMillis} (0 = up to the maximum depth only).
+     * Depth 1 always completes, so a legal move is returned whenever one exists.
+     * A book or tablebase move, if there is one, is returned without searching.
+     */
+    @Override
+    public int[] chooseMove(Board board, PieceColor aiColor, long moveTimeMillis) {
+        return search(board, aiColor, moveTimeMillis, false, () -> false);
+    }
+
+    /** Like the default, but the search also polls the future's cancellation directly. */
+    @Override
+    public CompletableFuture<int[]> chooseMoveAsync(Board board, PieceColor aiColor, Executor executor) {
+        return AsyncSearch.submit(this, board, executor,
+                (snapshot, cancelled) -> search(snapshot, aiColor, moveTimeMillis, false, cancelled));
+    }
+
+    // ---------- Pondering ----------
+    /** The hash move of the position after our move, if it is legal there. */
+    @Override
+    public int predictReply(Board board, PieceColor opponent) {
+        int compact = TranspositionTable.move(tt.probe(board.zobristKey() ^ Zobrist.sideKey(opponent)));
+        if (compact == Move.NONE) return Move.NONE;
+        MoveList moves = new MoveList();
+        int n = MoveGenerator.generateLegal(board, opponent, moves);
+        for (int i = 0; i < n; i++) {
+            if (Move.compact(moves.get(i)) == compact) return moves.get(i);
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Searches {@code predicted} without a clock until {@link #ponderHit()}; a fixed-depth
+     * AI simply completes its depth. The table is shared with the normal searches.
+     */
+    @Override
+    public CompletableFuture<int[]> ponderAsync(Board predicted, PieceColor aiColor, Executor executor) {
+        synchronized (this) {
+            ponderHit = false;
+        }
+        return AsyncSearch.submit(this, predicted, executor,
+                (snapshot, cancelled) -> search(snapshot, aiColor, moveTimeMillis, true, cancelled));
+    }
+
+    /**
+     * Starts the clock of the ponder search, counted from when it began, so a search that has
+     * already used its move time answers at once. Also works before the search has started.
+     */
+    @Override
+    public synchronized void ponderHit() {
+        ponderHit = true;
+        if (pondering) {
+            pondering = false;
+            deadline = deadlineFrom(searchStart, searchMoveTime);
+        }
+    }
+
+    private static long deadlineFrom(long start, long moveTimeMillis) {
+        return (moveTimeMillis > 0) ? start + moveTimeMillis * 1_000_000L : Long.MAX_VALUE;
+    }
+
+    private int[] search(Board board, PieceColor aiColor, long moveTimeMillis, boolean ponder, BooleanSupplier cancelled) {
+        if (book != null) {
+            int bookMove = book.pickMove(board, aiColor);
+            if (bookMove != Move.NONE) {
+                nodes = 0;
+                completedDepth = 0;
+                principalVariation = "book " + Move.toString(bookMove);
+                return Move.toCoords(bookMove);
             }
         }
-        return bestMove; // can be null on mate/stalemate
-    }
-
-    private int negamax(Board b, PieceColor toMove, int depth, int alpha, int beta) {
-        // Terminal or depth limit
-        boolean anyMove = false;
-        int best = Integer.MIN_VALUE;
-
-        if (depth == 0) return evaluate(b, toMove);
-
-        for (Piece p : b.getPiecesByColor(toMove)) {
-            int sr = p.getX(), sc = p.getY();
-            for (int er = 0; er < 8; er++) {
-                for (int ec = 0; ec < 8; ec++) {
-                    if (!p.canMove(b, sr, sc, er, ec)) continue;
-                    Board t = b.deepCopy();
-                    t.movePiece(sr, sc, er, ec);
-                    if (Rules.isInCheck(t, toMove)) continue; // self-check invalid
-                    anyMove = true;
-
-                    int score = -negamax(t, flip(toMove), depth - 1, -beta, -alpha);
-                    if (score > best) best = score;
-                    if (score > alpha) alpha = score;
-                    if (alpha >= beta) return alpha; // alpha-beta cut
-                }
+        if (tablebases != null) {
+            int tableMove = tablebases.bestMove(board, aiColor);
+            if (tableMove != Move.NONE) {
+                nodes = 0;
+                completedDepth = 0;
+                principalVariation = "tablebase " + Move.toString(tableMove);
+                return Move.toCoords(tableMove);
             }
         }
 
-        if (!anyMove) {
-            // No legal moves: checkmate or stalemate from toMove's perspective
-            if (Rules.isCheckmate(b, toMove)) return -100000;
-            if (Rules.isStalemate(b, toMove)) return 0;
-            return 0;
+        stopped = false;
+        mainDone = false;
+        this.cancelled = cancelled;
+        synchronized (this) {
+            searchStart = System.nanoTime();
+            searchMoveTime = moveTimeMillis;
+            pondering = ponder && !ponderHit;
+            deadline = pondering ? Long.MAX_VALUE : deadlineFrom(searchStart, moveTimeMillis);
+        }
+        tt.newSearch();
+
+        // helpers first, each on its own board copy; they run until the main worker is done
+        Thread[] helpers = new Thread[workers.length - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            SearchWorker helper = workers[i + 1];
+            Board copy = board.deepCopy();
+            helpers[i] = new Thread(() -> helper.search(copy, aiColor, maxDepth), "AI-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
         }
-        return best;
+
+        SearchWorker main = workers[0];
+        int bestMove = main.search(board.deepCopy(), aiColor, maxDepth);
+        mainDone = true;
+        joinAll(helpers);
+        synchronized (this) {
+            pondering = false;
+        }
+
+        nodes = nullTries = nullCutoffs = lmrReduced = lmrResearched = 0;
+        pvsResearched = aspirationResearched = seePruned = 0;
+        for (SearchWorker w : workers) {
+            nodes += w.nodes;
+            nullTries += w.nullTries;
+            nullCutoffs += w.nullCutoffs;
+            lmrReduced += w.lmrReduced;
+            lmrResearched += w.lmrResearched;
+            pvsResearched += w.pvsResearched;
+            aspirationResearched += w.aspirationResearched;
+            seePruned += w.seePruned;
+        }
+        completedDepth = main.completedDepth;
+        principalVariation = (bestMove == Move.NONE) ? null : formatLine(completedDepth, main.score, main.pv);
+        // can be null on mate/stalemate
+        return bestMove == Move.NONE ? null : Move.toCoords(bestMove);
     }
 
-    /**
-     * Simple material-based evaluation from the given perspective.
-     * Higher is better for {@code perspective}.
-     */
-    private int evaluate(Board b, PieceColor perspective) {
-        int material = 0;
-        for (Piece p : b.getPiecesByColor(PieceColor.WHITE)) material += pieceVal(p);
-        for (Piece p : b.getPiecesByColor(PieceColor.BLACK)) material -= pieceVal(p);
+    /** Requests the running search to stop; it returns the last completed iteration's move. */
+    @Override
+    public void stop() {
+        stopped = true;
+    }
 
-        int checkPenalty = Rules.isInCheck(b, perspective) ? 10 : 0;
-        // Convert to perspective: positive good for perspective
-        int score = (perspective == PieceColor.WHITE) ? material : -material;
-        return score - checkPenalty;
+    /** Empties the transposition table so nothing carries over from the previous game. */
+    @Override
+    public void newGame() {
+        tt.clear();
     }
 
     /**
-     * Basic piece values in centipawns.
+     * The main line of the last search as "depth score: moves", e.g. "d7 +0.35: e2e4 e7e5 g1f3",
+     * scored in pawns for the AI ("#3" / "#-3" = mates in moves); "book e2e4" or
+     * "tablebase h1g2" when the move did not come from a search.
      */
-    private int pieceVal(Piece p) {
-        return switch (p.getType()) {
-            case QUEEN -> 900;
-            case ROOK -> 500;
-            case BISHOP, KNIGHT -> 300;
-            case PAWN -> 100;
-            case KING -> 0;
-        };
+    @Override
+    public String lastPrincipalVariation() {
+        return principalVariation;
+    }
+
+    private static String formatLine(int depth, int score, int[] pv) {
+        StringBuilder sb = new StringBuilder("d").append(depth).append(' ');
+        if (Math.abs(score) > SearchWorker.MATE_BOUND) {
+            int moves = (MATE - Math.abs(score) + 1) / 2;
+            sb.append(score > 0 ? "#" : "#-").append(moves);
+        } else {
+            sb.append(String.format("%+.2f", score / 100.0));
+        }
+        sb.append(':');
+        for (int move : pv) sb.append(' ').append(Move.toString(move));
+        return sb.toString();
+    }
+
+    /** Polled by the workers: should worker {@code id} abandon its search? */
+    boolean shouldStop(int id) {
+        return stopped || cancelled.getAsBoolean() || (id > 0 && mainDone) || System.nanoTime() > deadline;
+    }
+
+    private static void joinAll(Thread[] threads) {
+        boolean interrupted = false;
+        for (Thread t : threads) {
+            while (true) {
+                try {
+                    t.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // helpers are already told to stop; keep waiting
+                }
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
     }
 
-    private PieceColor flip(PieceColor c) {
-        return (c == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+    // ---------- Statistics (used by AIBench) ----------
+    void setMoveOrdering(boolean enabled) {
+        ordering = enabled;
+        for (SearchWorker w : workers) w.ordering = enabled;
     }
+    long lastNodes() { return nodes; }
+    long lastNullTries() { return nullTries; }
+    long lastNullCutoffs() { return nullCutoffs; }
+    long lastLmrReduced() { return lmrReduced; }
+    long lastLmrResearched() { return lmrResearched; }
+    long lastPvsResearched() { return pvsResearched; }
+    long lastAspirationResearched() { return aspirationResearched; }
+    long lastSeePruned() { return seePruned; }
+    int lastDepth() { return completedDepth; }
+    TranspositionTable table() { return tt; }
+    PawnHashTable pawnTable() { return workers[0].pawnTable(); }
 }
@@ -0,0 +1,129 @@
+package GUI;
+
+import logic.Board;
+import logic.Move;
+import logic.MoveGenerator;
+import logic.MoveList;
+import logic.See;
+import objects.PieceColor;
+
+/**
+ * Move ordering for the AI search. Moves are scored once per node and handed out best-first
+ * (selection sort, so a cutoff after the first few moves skips sorting the rest):
+ *
+ * 1. the hash move from the transposition table
+ * 2. captures and queen promotions, by MVV-LVA (most valuable victim, least valuable attacker)
+ * 3. two killer moves per ply: quiet moves that recently caused a beta cutoff at that ply
+ * 4. remaining quiet moves, by a history table indexed by piece and to-square
+ * 5. captures that lose material by static exchange evaluation ({@link See}), by MVV-LVA
+ *
+ * Killers and history are search state; one orderer belongs to one search thread.
+ */
+final class MoveOrderer {
+    private static final int HASH_MOVE = 1 << 30;
+    private static final int CAPTURE   = 1 << 24;
+    private static final int KILLER_1  = 1 << 22;
+    private static final int KILLER_2  = KILLER_1 - 1;
+    private static final int BAD_CAPTURE = -CAPTURE; // below every history score
+    private static final int HISTORY_MAX = 1 << 20; // history is halved when it grows past this
+
+    // MVV-LVA values by PieceType ordinal: PAWN, ROOK, KNIGHT, BISHOP, QUEEN, KING
+    private static final int[] VALUE = {1, 5, 3, 3, 9, 20};
+
+    private final int[][] scores;
+    private final int[][] killers;
+    private final int[][] history = new int[12][64]; // [color * 6 + piece][to]
+
+    MoveOrderer(int maxPly) {
+        scores = new int[maxPly][MoveGenerator.MAX_MOVES];
+        killers = new int[maxPly][2];
+    }
+
+    /** Call once per root search: forgets killers and ages the history scores. */
+    void newSearch() {
+        for (int[] k : killers) k[0] = k[1] = Move.NONE;
+        for (int[] h : history) {
+            for (int i = 0; i < 64; i++) h[i] >>= 2;
+        }
+    }
+
+    /**
+     * Scores the first {@code n} moves of {@code moves} for the node at {@code ply}.
+     * @param board the position they were generated in, or null when no capture among
+     *              them can lose material (already filtered): skips the exchange check
+     */
+    void score(Board board, MoveList moves, int n, int hashMove, int ply, PieceColor side) {
+        int[] s = scores[ply];
+        int[] killer = killers[ply];
+        int colorBase = side.ordinal() * 6;
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i);
+            int compact = Move.compact(move);
+            if (compact == hashMove) {
+                s[i] = HASH_MOVE;
+            } else if (Move.isCapture(move) || isQueenPromotion(move)) {
+                int victim = Move.isCapture(move) ? VALUE[((move >>> 15) & 7) - 1] : 0;
+                if (isQueenPromotion(move)) victim += VALUE[4];
+                int mvvLva = victim * 32 - VALUE[(move >>> 18) & 7];
+                // queen promotions stay in front; a capture goes last if the exchange loses material
+                boolean losing = board != null && !isQueenPromotion(move) && !See.atLeast(board, move, 0);
+                s[i] = (losing ? BAD_CAPTURE : CAPTURE) + mvvLva;
+            } else if (compact == killer[0]) {
+                s[i] = KILLER_1;
+            } else if (compact == killer[1]) {
+                s[i] = KILLER_2;
+            } else {
+                s[i] = history[colorBase + ((move >>> 18) & 7)][Move.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Moves the best-scored move among positions {@code i..n-1} to position {@code i}
+     * and returns it.
+     */
+    int next(MoveList moves, int n, int i, int ply) {
+        int[] s = scores[ply];
+        int best = i;
+        for (int j = i + 1; j < n; j++) {
+            if (s[j] > s[best]) best = j;
+        }
+        if (best != i) {
+            int m = moves.get(i);
+            moves.set(i, moves.get(best));
+            moves.set(best, m);
+            int t = s[i];
+            s[i] = s[best];
+            s[best] = t;
+        }
+        return moves.get(i);
+    }
+
+    /** True if the move handed out at position {@code i} was scored as a losing capture. */
+    boolean isLosingCapture(int ply, int i) {
+        return scores[ply][i] < 0; // everything else scores 0 or more
+    }
+
+    /** A quiet move caused a beta cutoff: remember it as a killer and reward its history. */
+    void recordCutoff(int move, int ply, int depth, PieceColor side) {
+        if (Move.isCapture(move) || isQueenPromotion(move)) return; // already ordered early
+        int compact = Move.compact(move);
+        int[] killer = killers[ply];
+        if (killer[0] != compact) {
+            killer[1] = killer[0];
+            killer[0] = compact;
+        }
+        int[] h = history[side.ordinal() * 6 + ((move >>> 18) & 7)];
+        int to = Move.to(move);
+        h[to] += depth * depth;
+        if (h[to] > HISTORY_MAX) {
+            for (int[] row : history) {
+                for (int i = 0; i < 64; i++) row[i] >>= 1;
+            }
+        }
+    }
+
+    private static boolean isQueenPromotion(int move) {
+        return ((move >>> 12) & 7) == 4; // PieceType.QUEEN ordinal
+    }
+}
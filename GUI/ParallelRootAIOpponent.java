@@ -0,0 +1,149 @@
+package GUI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import logic.Board;
+import logic.Move;
+import logic.MoveGenerator;
+import logic.MoveList;
+import objects.PieceColor;
+
+/**
+ * A parallel {@link AIOpponent} that splits the root moves of a fixed-depth search across
+ * a {@link ForkJoinPool} (young brothers wait):
+ *
+ * 1. The first root move (captures first, by MVV-LVA) is searched alone with a full window;
+ *    its score becomes the shared alpha.
+ * 2. All remaining root moves are searched in parallel. Each task reads the current alpha,
+ *    searches with window (alpha - 1, +inf) and raises the shared alpha atomically when it
+ *    finds something better, so later siblings are cut harder.
+ *
+ * The subtrees are searched without a transposition table, so every score that lands inside
+ * its window is the exact minimax value whatever the thread timing. Moves equal to the best
+ * score still come back exact thanks to the "- 1", and ties go to the earlier root move, so
+ * the chosen move at a fixed depth does not depend on the number of threads.
+ *
+ * Compared with {@link MinimaxAIOpponent}'s Lazy SMP this gives up the shared hash (and
+ * iterative deepening) for determinism; it is meant for the shallow fixed-depth levels.
+ */
+public class ParallelRootAIOpponent implements AIOpponent {
+    private final int depth;
+    private final ForkJoinPool pool;
+    // one search worker per pool thread (and one for the calling thread), created lazily
+    private final ThreadLocal<SearchWorker> workers;
+    private final LongAdder nodes = new LongAdder();
+    private volatile boolean stopped;
+
+    /** Uses one thread per available processor. */
+    public ParallelRootAIOpponent(int depth) {
+        this(depth, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param depth       search depth in plies
+     * @param parallelism number of fork/join worker threads
+     */
+    public ParallelRootAIOpponent(int depth, int parallelism) {
+        this.depth = Math.max(1, Math.min(depth, SearchWorker.MAX_DEPTH));
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        // id 1: the worker may be aborted at any time (there is no iteration to finish).
+        // No selective reductions: their results depend on the window, which depends on timing.
+        this.workers = ThreadLocal.withInitial(() -> {
+            SearchWorker w = new SearchWorker(id -> stopped, null, 1);
+            w.nullMove = false;
+            w.lateMoveReductions = false;
+            return w;
+        });
+    }
+
+    /**
+     * Choose a move for {@code aiColor} in the given position.
+     * The input board is not mutated.
+     */
+    @Override
+    public int[] chooseMove(Board board, PieceColor aiColor) {
+        stopped = false;
+        nodes.reset();
+
+        MoveList moves = new MoveList();
+        int n = MoveGenerator.generateLegal(board, aiColor, moves);
+        if (n == 0) return null; // checkmate or stalemate
+        orderRootMoves(board, moves, n);
+
+        // eldest brother: searched alone with a full window to establish alpha
+        Board first = board.deepCopy();
+        SearchWorker w = workers.get();
+        w.reset();
+        int firstScore = w.searchMove(first, aiColor, moves.get(0), depth, -SearchWorker.MATE - 1, SearchWorker.MATE + 1);
+        nodes.add(w.nodes);
+        if (w.aborted() || n == 1) return Move.toCoords(moves.get(0));
+
+        // young brothers: in parallel, each against the best score known when it starts
+        AtomicInteger alpha = new AtomicInteger(firstScore);
+        int[] scores = new int[n];
+        boolean[] done = new boolean[n];
+        List<RecursiveAction> siblings = new ArrayList<>(n - 1);
+        for (int i = 1; i < n; i++) {
+            int index = i;
+            int move = moves.get(i);
+            siblings.add(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    SearchWorker worker = workers.get();
+                    worker.reset();
+                    int a = alpha.get();
+                    int score = worker.searchMove(board.deepCopy(), aiColor, move, depth, a - 1, SearchWorker.MATE + 1);
+                    nodes.add(worker.nodes);
+                    if (worker.aborted()) return;
+                    scores[index] = score;
+                    done[index] = true;
+                    alpha.accumulateAndGet(score, Math::max);
+                }
+            });
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(siblings);
+            }
+        });
+
+        // highest score wins; on equal scores the earlier root move
+        int best = 0;
+        int bestScore = firstScore;
+        for (int i = 1; i < n; i++) {
+            if (done[i] && scores[i] > bestScore) {
+                bestScore = scores[i];
+                best = i;
+            }
+        }
+        return Move.toCoords(moves.get(best));
+    }
+
+    /** Requests the running search to stop; the best fully searched root move is returned. */
+    @Override
+    public void stop() {
+        stopped = true;
+    }
+
+    /** Shuts the fork/join pool down; the AI cannot search afterwards. */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    // Fixed, position-only root order: captures and promotions first (MVV-LVA), then the rest,
+    // then captures that lose material
+    private static void orderRootMoves(Board board, MoveList moves, int n) {
+        MoveOrderer orderer = new MoveOrderer(1);
+        orderer.score(board, moves, n, Move.NONE, 0, PieceColor.WHITE);
+        for (int i = 0; i < n; i++) orderer.next(moves, n, i, 0);
+    }
+
+    // ---------- Statistics (used by AIBench) ----------
+    long lastNodes() { return nodes.sum(); }
+}
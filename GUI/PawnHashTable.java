@@ -0,0 +1,168 @@
+package GUI;
+
+import logic.Board;
+import objects.PieceColor;
+import objects.PieceType;
+
+/**
+ * Cache of pawn-structure evaluations, indexed by {@link Board#pawnKey()}.
+ *
+ * The structure terms only depend on where the pawns stand, which changes on few moves,
+ * so most nodes find their entry here instead of re-analysing the files. An entry holds
+ * the middlegame and endgame structure scores (White's point of view) and the passed-pawn
+ * masks of both colors, which the evaluation reuses for position-dependent passer terms.
+ *
+ * Terms: doubled, isolated and backward pawns (penalties), passed pawns (bonus growing
+ * with advancement). One table belongs to one search thread; it is not shared.
+ */
+final class PawnHashTable {
+    private static final int ENTRIES = 1 << 14; // power of two; ~550 KB per table
+
+    // MG/EG penalties and bonuses in centipawns
+    private static final int DOUBLED_MG = 10,  DOUBLED_EG = 20;
+    private static final int ISOLATED_MG = 10, ISOLATED_EG = 20;
+    private static final int BACKWARD_MG = 8,  BACKWARD_EG = 10;
+    // passed pawn bonus by rows advanced from the start row (0..6)
+    private static final int[] PASSED_MG = {0, 5, 10, 20, 35, 60, 0};
+    private static final int[] PASSED_EG = {0, 10, 20, 35, 60, 100, 0};
+
+    private static final long[] FILE = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    /** FRONT_SPAN[color][sq]: squares ahead of a pawn on sq on its own and adjacent files. */
+    private static final long[][] FRONT_SPAN = new long[2][64];
+    /** SUPPORT[color][sq]: squares on adjacent files level with or behind sq (own pawns there can defend it). */
+    private static final long[][] SUPPORT = new long[2][64];
+
+    static {
+        for (int f = 0; f < 8; f++) {
+            for (int r = 0; r < 8; r++) FILE[f] |= 1L << (r * 8 + f);
+        }
+        for (int f = 0; f < 8; f++) {
+            ADJACENT_FILES[f] = (f > 0 ? FILE[f - 1] : 0) | (f < 7 ? FILE[f + 1] : 0);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >> 3, f = sq & 7;
+            long span = FILE[f] | ADJACENT_FILES[f];
+            long above = 0, below = 0; // rows with a smaller / larger index than r
+            for (int rr = 0; rr < 8; rr++) {
+                long row = 0xFFL << (rr * 8);
+                if (rr < r) above |= row;
+                if (rr > r) below |= row;
+            }
+            long level = 0xFFL << (r * 8);
+            // white pawns advance towards row 0, black pawns towards row 7
+            FRONT_SPAN[PieceColor.WHITE.ordinal()][sq] = span & above;
+            FRONT_SPAN[PieceColor.BLACK.ordinal()][sq] = span & below;
+            SUPPORT[PieceColor.WHITE.ordinal()][sq] = ADJACENT_FILES[f] & (below | level);
+            SUPPORT[PieceColor.BLACK.ordinal()][sq] = ADJACENT_FILES[f] & (above | level);
+        }
+    }
+
+    private final long[] keys = new long[ENTRIES];
+    private final int[] mg = new int[ENTRIES];
+    private final int[] eg = new int[ENTRIES];
+    private final long[] passedWhite = new long[ENTRIES];
+    private final long[] passedBlack = new long[ENTRIES];
+    private final boolean[] used = new boolean[ENTRIES];
+
+    private long probes, hits;
+
+    /**
+     * Index of the entry for the board's pawn structure, analysing the pawns on a miss.
+     * Read the entry with {@link #mg}, {@link #eg} and {@link #passed}.
+     */
+    int probe(Board b) {
+        probes++;
+        long key = b.pawnKey();
+        int i = (int) (key ^ (key >>> 32)) & (ENTRIES - 1);
+        if (used[i] && keys[i] == key) {
+            hits++;
+            return i;
+        }
+        analyse(b, i);
+        keys[i] = key;
+        used[i] = true;
+        return i;
+    }
+
+    int mg(int entry) { return mg[entry]; }
+    int eg(int entry) { return eg[entry]; }
+
+    /** Passed pawns of {@code color} in the entry. */
+    long passed(int entry, PieceColor color) {
+        return color == PieceColor.WHITE ? passedWhite[entry] : passedBlack[entry];
+    }
+
+    private void analyse(Board b, int entry) {
+        long white = b.pieces(PieceColor.WHITE, PieceType.PAWN);
+        long black = b.pieces(PieceColor.BLACK, PieceType.PAWN);
+        int[] sWhite = side(PieceColor.WHITE, white, black);
+        int[] sBlack = side(PieceColor.BLACK, black, white);
+        mg[entry] = sWhite[0] - sBlack[0];
+        eg[entry] = sWhite[1] - sBlack[1];
+        passedWhite[entry] = passedMask(PieceColor.WHITE, white, black);
+        passedBlack[entry] = passedMask(PieceColor.BLACK, black, white);
+    }
+
+    // {mg, eg} structure score of one side's pawns
+    private static int[] side(PieceColor color, long own, long enemy) {
+        int c = color.ordinal();
+        int up = (color == PieceColor.WHITE) ? -8 : 8;
+        long enemyAttacks = enemyPawnAttacks(color, enemy);
+        int scoreMg = 0, scoreEg = 0;
+
+        for (int f = 0; f < 8; f++) {
+            int onFile = Long.bitCount(own & FILE[f]);
+            if (onFile > 1) {
+                scoreMg -= DOUBLED_MG * (onFile - 1);
+                scoreEg -= DOUBLED_EG * (onFile - 1);
+            }
+        }
+
+        for (long bb = own; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            int f = sq & 7;
+            if ((own & ADJACENT_FILES[f]) == 0) {
+                scoreMg -= ISOLATED_MG;
+                scoreEg -= ISOLATED_EG;
+            } else if ((own & SUPPORT[c][sq]) == 0) {
+                // no neighbour can come level to defend it, and its stop square is covered
+                // by an enemy pawn: it cannot advance safely either
+                int stop = sq + up;
+                if (stop >= 0 && stop < 64 && (enemyAttacks & (1L << stop)) != 0) {
+                    scoreMg -= BACKWARD_MG;
+                    scoreEg -= BACKWARD_EG;
+                }
+            }
+            if ((enemy & FRONT_SPAN[c][sq]) == 0) {
+                int advanced = (color == PieceColor.WHITE) ? 6 - (sq >> 3) : (sq >> 3) - 1;
+                advanced = Math.max(0, Math.min(advanced, 6));
+                scoreMg += PASSED_MG[advanced];
+                scoreEg += PASSED_EG[advanced];
+            }
+        }
+        return new int[]{scoreMg, scoreEg};
+    }
+
+    private static long passedMask(PieceColor color, long own, long enemy) {
+        long passed = 0;
+        for (long bb = own; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            if ((enemy & FRONT_SPAN[color.ordinal()][sq]) == 0) passed |= 1L << sq;
+        }
+        return passed;
+    }
+
+    // squares attacked by the pawns of the side opposing "color"
+    private static long enemyPawnAttacks(PieceColor color, long enemy) {
+        long notA = ~FILE[0], notH = ~FILE[7];
+        if (color == PieceColor.WHITE) { // black pawns capture towards larger rows
+            return ((enemy & notA) << 7) | ((enemy & notH) << 9);
+        }
+        return ((enemy & notA) >>> 9) | ((enemy & notH) >>> 7);
+    }
+
+    // ---------- statistics ----------
+    long probes() { return probes; }
+    long hits()   { return hits; }
+}
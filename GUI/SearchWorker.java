@@ -0,0 +1,491 @@
+package GUI;
+
+import logic.Board;
+import logic.Move;
+import logic.MoveGenerator;
+import logic.MoveList;
+import logic.PieceSquareTables;
+import logic.Rules;
+import logic.See;
+import logic.Tablebases;
+import logic.Zobrist;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import objects.*;
+
+/**
+ * One search thread of {@link MinimaxAIOpponent}: iterative deepening over negamax with
+ * alpha-beta, quiescence search and move ordering, on its own copy of the board.
+ *
+ * Principal variation search: the first (best-ordered) move of a node gets the full
+ * window, every later one only a zero-width probe (alpha, alpha + 1) that proves it is
+ * no better; a probe that fails high is searched again with the full window. At the
+ * root each iteration starts with an aspiration window around the previous score and
+ * widens it on the failing side until the score falls inside. The moves that carried
+ * the score are collected per ply (triangular PV table) and kept as {@link #pv}.
+ *
+ * Two selective-search reductions can be switched off separately:
+ * - Null-move pruning: if passing the turn and searching R = 2 (3 when deep) plies less
+ *   still fails high, the real moves will too. Not used in check, right after another
+ *   null move, or when the side to move has only pawns (zugzwang is common there).
+ * - Late move reductions: quiet moves late in the ordering are searched with a null window
+ *   at a depth reduced by ~ln(depth) * ln(moveNumber); only a fail high is re-searched
+ *   at full depth.
+ *
+ * Captures that lose material by static exchange evaluation ({@link See}) are ordered
+ * last, dropped from the quiescence search, and skipped at the last few plies before the
+ * horizon unless they give check (always on).
+ *
+ * Everything a worker touches during a search is its own (board, move buffers, killers,
+ * history) except the transposition table, which all workers of one AI share. Worker 0
+ * is the main worker whose move is played; helpers (id > 0) exist only to fill the table
+ * and stop as soon as the main worker is done (Lazy SMP).
+ *
+ * A worker can also search a single root move without a table ({@link #searchMove}); the
+ * fork/join {@link ParallelRootAIOpponent} uses that so results do not depend on timing.
+ */
+final class SearchWorker {
+    static final int MATE = 100000;
+    static final int MATE_BOUND = MATE - 1000;         // scores beyond this are mate-in-N
+    static final int MAX_PLY = 64;
+    private static final int MAX_QSEARCH_DEPTH = 8;           // plies of captures beyond depth 0
+    static final int MAX_DEPTH = MAX_PLY - MAX_QSEARCH_DEPTH - 1;
+    private static final int DELTA_MARGIN = 200;              // slack for positional gains in qsearch
+    private static final int FREE_PASSER_MG = 5, FREE_PASSER_EG = 15;
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int LMR_MIN_DEPTH = 3;
+    private static final int LMR_FULL_MOVES = 3;              // moves searched unreduced first
+    private static final int SEE_PRUNE_DEPTH = 3;             // bad captures skipped up to this depth
+    private static final int SEE_PRUNE_MARGIN = 100;          // tolerated loss per ply of depth
+    private static final int ASPIRATION_MIN_DEPTH = 4;        // shallower scores swing too much
+    private static final int ASPIRATION_DELTA = 30;           // initial half-width, doubled per fail
+    /** LMR_REDUCTION[depth][moveIndex]: plies taken off a late quiet move. */
+    private static final int[][] LMR_REDUCTION = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+
+    static {
+        for (int d = 1; d < MAX_PLY; d++) {
+            for (int i = 1; i < MoveGenerator.MAX_MOVES; i++) {
+                LMR_REDUCTION[d][i] = (int) (0.75 + Math.log(d) * Math.log(i) / 2.25);
+            }
+        }
+    }
+
+    private final IntPredicate stop;        // polled with the worker id: abandon the search?
+    private final TranspositionTable tt;    // null: search without a table
+    private final int id;
+    private final MoveOrderer orderer = new MoveOrderer(MAX_PLY);
+    private final PawnHashTable pawnTable = new PawnHashTable();
+    private final MoveList[] plyMoves = new MoveList[MAX_PLY]; // one reusable buffer per ply
+    // pvTable[ply][ply..pvLength[ply]-1]: best line found from the node at ply
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    private int rootScore;     // score of the last searchRoot call (fail-soft)
+
+    boolean ordering = true;   // false: hash move first, then generation order (main search only)
+    Tablebases tablebases;     // null: no endgame tables
+    boolean nullMove = true;   // null-move pruning
+    boolean lateMoveReductions = true;
+    long nodes;                // nodes visited by the last search
+    int completedDepth;        // deepest fully searched iteration of the last search
+    long nullTries, nullCutoffs;         // null-move searches / those that failed high
+    long lmrReduced, lmrResearched;      // reduced moves / those re-searched at full depth
+    long pvsResearched;                  // zero-window probes that failed high and were re-searched
+    long seePruned;                      // captures skipped as losing (qsearch and shallow depths)
+    long aspirationResearched;           // root iterations repeated with a wider window
+    int[] pv = new int[0];     // principal variation of the last completed iteration
+    int score;                 // its score, for the side to move at the root
+    private boolean aborted;   // set when the owner says stop; every node then unwinds
+
+    SearchWorker(IntPredicate stop, TranspositionTable tt, int id) {
+        this.stop = stop;
+        this.tt = tt;
+        this.id = id;
+        for (int i = 0; i < MAX_PLY; i++) plyMoves[i] = new MoveList();
+    }
+
+    /**
+     * Iterative deepening up to {@code maxDepth} on {@code work} (which the worker mutates and
+     * restores). The main worker always completes depth 1. Helpers with an odd id skip
+     * ahead by one ply so that the threads do not all work on the same iteration.
+     * @return the best move of the last completed iteration, or {@link Move#NONE}
+     */
+    int search(Board work, PieceColor side, int maxDepth) {
+        reset();
+
+        int bestMove = Move.NONE;
+        int firstDepth = (id > 0) ? Math.min(1 + (id & 1), maxDepth) : 1;
+        for (int depth = firstDepth; depth <= maxDepth; depth++) {
+            int delta = ASPIRATION_DELTA;
+            int alpha = -MATE - 1, beta = MATE + 1;
+            if (depth >= ASPIRATION_MIN_DEPTH && Math.abs(score) < MATE_BOUND) {
+                alpha = score - delta;
+                beta = score + delta;
+            }
+            int move;
+            while (true) {
+                move = searchRoot(work, side, depth, alpha, beta);
+                if (aborted || move == Move.NONE || (rootScore > alpha && rootScore < beta)) break;
+                // outside the window: widen it on the failing side and search this depth again
+                aspirationResearched++;
+                if (rootScore <= alpha) alpha = Math.max(-MATE - 1, rootScore - delta);
+                else beta = Math.min(MATE + 1, rootScore + delta);
+                delta *= 2;
+            }
+            if (aborted) break;               // unfinished iteration: keep the previous result
+            bestMove = move;
+            completedDepth = depth;
+            score = rootScore;
+            pv = Arrays.copyOf(pvTable[0], pvLength[0]);
+            if (move == Move.NONE) break;     // mate/stalemate at the root
+        }
+        return bestMove;
+    }
+
+    /** Clears the per-search state (node count, abort flag, killers, history age). */
+    void reset() {
+        nodes = 0;
+        completedDepth = 0;
+        nullTries = nullCutoffs = 0;
+        lmrReduced = lmrResearched = 0;
+        pvsResearched = aspirationResearched = 0;
+        seePruned = 0;
+        pv = new int[0];
+        score = 0;
+        aborted = false;
+        orderer.newSearch();
+    }
+
+    /**
+     * Score of playing {@code move} for {@code side}, searched {@code depth - 1} plies deeper
+     * with window (alpha, beta). Scores inside the window are exact; the board is restored.
+     * Call {@link #reset} first; {@link #aborted()} tells whether the result is usable.
+     */
+    int searchMove(Board work, PieceColor side, int move, int depth, int alpha, int beta) {
+        int undo = work.makeMove(move);
+        int score = -negamax(work, flip(side), depth - 1, -beta, -alpha, 1, true);
+        work.unmakeMove(undo);
+        return score;
+    }
+
+    boolean aborted() { return aborted; }
+
+    PawnHashTable pawnTable() { return pawnTable; }
+
+    // One iteration: every root move searched to depth - 1 plies within (alpha, beta).
+    // Sets rootScore; on a fail high the move that caused it is returned.
+    private int searchRoot(Board work, PieceColor side, int depth, int alpha, int beta) {
+        int alphaOrig = alpha;
+        int bestScore = Integer.MIN_VALUE;
+        int bestMove = Move.NONE;
+        pvLength[0] = 0;
+        rootScore = 0;
+
+        // Generate legal moves; the previous iteration's best move goes first
+        long key = work.zobristKey() ^ Zobrist.sideKey(side);
+        MoveList moves = plyMoves[0];
+        int n = MoveGenerator.generateLegal(work, side, moves);
+        moveToFront(moves, n, TranspositionTable.move(tt.probe(key)));
+        if (id > 0) rotateTail(moves, n, id); // helpers start on different siblings
+        for (int i = 0; i < n; i++) {
+            int move = moves.get(i); // root keeps generation order behind the previous best move
+            int undo = work.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(work, flip(side), depth - 1, -beta, -alpha, 1, true);
+            } else {
+                score = -negamax(work, flip(side), depth - 1, -alpha - 1, -alpha, 1, true);
+                if (score > alpha && score < beta && !aborted) {
+                    pvsResearched++;
+                    score = -negamax(work, flip(side), depth - 1, -beta, -alpha, 1, true);
+                }
+            }
+            work.unmakeMove(undo);
+            if (aborted) return bestMove; // result is discarded by the caller
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (i == 0 || score > alpha) updatePv(0, move);
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;     // fail high: the caller widens the window
+        }
+        if (bestMove != Move.NONE) {
+            rootScore = bestScore;
+            int bound = (bestScore <= alphaOrig) ? TranspositionTable.UPPER
+                      : (bestScore >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            tt.store(key, Move.compact(bestMove), toTT(bestScore, 0), depth, bound);
+        }
+        return bestMove;
+    }
+
+    // Polls the owner every 1024 nodes. The main worker ignores stop requests until depth 1
+    // is complete, so it always has a move to report.
+    private boolean pollAbort() {
+        if ((++nodes & 1023) == 0 && (id > 0 || completedDepth > 0) && stop.test(id)) aborted = true;
+        return aborted;
+    }
+
+    // nullAllowed is false right after a null move (two passes in a row prove nothing)
+    private int negamax(Board b, PieceColor toMove, int depth, int alpha, int beta, int ply, boolean nullAllowed) {
+        pvLength[ply] = ply;  // no line yet; stays empty on any early return
+        if (pollAbort()) return 0;
+
+        // Endgame tables: an exact result for few enough pieces, no search needed
+        if (tablebases != null && Long.bitCount(b.occupancy()) <= Tablebases.MAX_PIECES) {
+            int value = tablebases.probe(b, toMove);
+            if (value != Tablebases.NOT_FOUND) return tablebaseScore(value, ply);
+        }
+
+        // Depth limit: settle pending captures before trusting the evaluation
+        if (depth == 0) return quiesce(b, toMove, alpha, beta, ply, 0);
+
+        // Transposition table: reuse a result of sufficient depth, or at least its best move.
+        // Nodes with an open window (PV nodes) are searched anyway to get their line.
+        boolean pvNode = beta - alpha > 1;
+        long key = b.zobristKey() ^ Zobrist.sideKey(toMove);
+        long entry = (tt != null) ? tt.probe(key) : 0L;
+        if (!pvNode && entry != 0 && TranspositionTable.depth(entry) >= depth) {
+            int ttScore = fromTT(TranspositionTable.score(entry), ply);
+            int bound = TranspositionTable.bound(entry);
+            if (bound == TranspositionTable.EXACT) return ttScore;
+            if (bound == TranspositionTable.LOWER && ttScore >= beta) return ttScore;
+            if (bound == TranspositionTable.UPPER && ttScore <= alpha) return ttScore;
+        }
+
+        boolean inCheck = Rules.isInCheck(b, toMove);
+
+        // Null move: let the opponent move twice; if we still fail high, cut
+        if (nullMove && nullAllowed && !pvNode && !inCheck && depth >= NULL_MOVE_MIN_DEPTH
+                && beta < MATE_BOUND && hasPieces(b, toMove) && evaluate(b, toMove) >= beta) {
+            int r = (depth > 6) ? 3 : 2;
+            nullTries++;
+            int score = -negamax(b, flip(toMove), Math.max(0, depth - 1 - r), -beta, -beta + 1, ply + 1, false);
+            if (aborted) return 0;
+            if (score >= beta) {
+                nullCutoffs++;
+                return (score >= MATE_BOUND) ? beta : score; // a "mate" after passing is not proven
+            }
+        }
+
+        MoveList moves = plyMoves[ply];
+        int n = MoveGenerator.generateLegal(b, toMove, moves);
+        if (n == 0) {
+            // No legal moves: checkmate (sooner is worse) or stalemate from toMove's perspective
+            return inCheck ? -(MATE - ply) : 0;
+        }
+        int hashMove = TranspositionTable.move(entry);
+        if (ordering) orderer.score(b, moves, n, hashMove, ply, toMove);
+        else moveToFront(moves, n, hashMove);
+
+        int alphaOrig = alpha;
+        int best = Integer.MIN_VALUE;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < n; i++) {
+            int move = ordering ? orderer.next(moves, n, i, ply) : moves.get(i);
+            // near the horizon a capture that loses clearly is not worth a search, unless it checks
+            boolean badCapture = i > 0 && !pvNode && !inCheck && depth <= SEE_PRUNE_DEPTH
+                    && Move.isCapture(move) && !Move.isPromotion(move)
+                    && (!ordering || orderer.isLosingCapture(ply, i))  // known to lose something
+                    && !See.atLeast(b, move, -SEE_PRUNE_MARGIN * depth);
+            int undo = b.makeMove(move);
+            if (badCapture && !Rules.isInCheck(b, flip(toMove))) {
+                b.unmakeMove(undo);
+                seePruned++;
+                continue;
+            }
+            int score;
+            if (i == 0) {
+                score = -negamax(b, flip(toMove), depth - 1, -beta, -alpha, ply + 1, true);
+            } else {
+                int reduction = 0;
+                if (lateMoveReductions && i >= LMR_FULL_MOVES && depth >= LMR_MIN_DEPTH && !inCheck
+                        && !Move.isCapture(move) && !Move.isPromotion(move) && !Rules.isInCheck(b, flip(toMove))) {
+                    reduction = Math.min(LMR_REDUCTION[depth][i], depth - 2);
+                    if (reduction > 0) lmrReduced++;
+                }
+                // zero-window probe (reduced for a late quiet move): can this move beat alpha at all?
+                score = -negamax(b, flip(toMove), depth - 1 - reduction, -alpha - 1, -alpha, ply + 1, true);
+                if (score > alpha && reduction > 0 && !aborted) {
+                    lmrResearched++;
+                    score = -negamax(b, flip(toMove), depth - 1, -alpha - 1, -alpha, ply + 1, true);
+                }
+                if (score > alpha && score < beta && !aborted) {
+                    pvsResearched++; // only at PV nodes: elsewhere beta is alpha + 1
+                    score = -negamax(b, flip(toMove), depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            b.unmakeMove(undo);
+            if (aborted) return 0; // aborted: nothing may reach the table
+            if (score > best) {
+                best = score;
+                bestMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePv(ply, move);
+            }
+            if (alpha >= beta) { // alpha-beta cut
+                if (ordering) orderer.recordCutoff(move, ply, depth, toMove);
+                break;
+            }
+        }
+
+        int bound = (best <= alphaOrig) ? TranspositionTable.UPPER
+                  : (best >= beta) ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        if (tt != null) tt.store(key, Move.compact(bestMove), toTT(best, ply), depth, bound);
+        return best;
+    }
+
+    /**
+     * Captures-only search below the nominal depth. The side to move may "stand pat" on the
+     * static evaluation instead of capturing; captures that cannot lift the score to alpha
+     * even with a margin are skipped (delta pruning), and so are captures that lose material
+     * by static exchange evaluation. In check, all evasions are searched.
+     */
+    private int quiesce(Board b, PieceColor toMove, int alpha, int beta, int ply, int qdepth) {
+        if (pollAbort()) return 0;
+
+        boolean inCheck = Rules.isInCheck(b, toMove);
+        MoveList moves = plyMoves[ply];
+        int n = MoveGenerator.generateLegal(b, toMove, moves);
+        if (n == 0) return inCheck ? -(MATE - ply) : 0;
+
+        int standPat = evaluate(b, toMove);
+        if (qdepth >= MAX_QSEARCH_DEPTH) return standPat;
+
+        int best = Integer.MIN_VALUE;
+        if (!inCheck) {
+            if (standPat >= beta) return standPat;
+            // even winning a queen would not reach alpha: no capture can help
+            if (standPat + pieceVal(PieceType.QUEEN) + DELTA_MARGIN <= alpha) return standPat;
+            if (standPat > alpha) alpha = standPat;
+            best = standPat;
+
+            // keep only captures and queen promotions that could still raise alpha
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                int move = moves.get(i);
+                PieceType captured = Move.captured(move);
+                boolean queening = Move.promotion(move) == PieceType.QUEEN;
+                if (captured == null && !queening) continue;
+                int gain = (captured == null ? 0 : pieceVal(captured))
+                         + (queening ? pieceVal(PieceType.QUEEN) - pieceVal(PieceType.PAWN) : 0);
+                if (standPat + gain + DELTA_MARGIN <= alpha) continue; // delta pruning
+                if (!queening && !See.atLeast(b, move, 0)) {           // loses material in the exchange
+                    seePruned++;
+                    continue;
+                }
+                moves.set(kept++, move);
+            }
+            n = kept;
+        }
+        // captures are always taken in MVV-LVA order; the ordering switch is for the main search
+        orderer.score(inCheck ? b : null, moves, n, Move.NONE, ply, toMove); // captures left do not lose
+
+        for (int i = 0; i < n; i++) {
+            int move = orderer.next(moves, n, i, ply);
+            int undo = b.makeMove(move);
+            int score = -quiesce(b, flip(toMove), -beta, -alpha, ply + 1, qdepth + 1);
+            b.unmakeMove(undo);
+            if (aborted) return 0;
+            if (score > best) best = score;
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) break;
+        }
+        return best;
+    }
+
+    // The node at ply now starts with move, followed by the line of the child just searched
+    private void updatePv(int ply, int move) {
+        int end = Math.max(pvLength[ply + 1], ply + 1);
+        pvTable[ply][ply] = move;
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, end - ply - 1);
+        pvLength[ply] = end;
+    }
+
+    // Any piece besides king and pawns? Without one, passing can be the only good "move"
+    private static boolean hasPieces(Board b, PieceColor side) {
+        long pawnsAndKing = b.pieces(side, PieceType.PAWN) | b.pieces(side, PieceType.KING);
+        return (b.pieces(side) & ~pawnsAndKing) != 0;
+    }
+
+    // Puts the move matching the table's compact move first (if present)
+    private static void moveToFront(MoveList moves, int n, int compactMove) {
+        if (compactMove == Move.NONE) return;
+        for (int i = 0; i < n; i++) {
+            int m = moves.get(i);
+            if (Move.compact(m) == compactMove) {
+                moves.set(i, moves.get(0));
+                moves.set(0, m);
+                return;
+            }
+        }
+    }
+
+    // Rotates moves[1..n-1] left by k, leaving the (hash) move in front where it is
+    private static void rotateTail(MoveList moves, int n, int k) {
+        int len = n - 1;
+        if (len < 2) return;
+        k %= len;
+        for (int r = 0; r < k; r++) {
+            int first = moves.get(1);
+            for (int i = 1; i < n - 1; i++) moves.set(i, moves.get(i + 1));
+            moves.set(n - 1, first);
+        }
+    }
+
+    // Table value (0 = draw, else plies to mate + 1, odd = toMove mates) as a search score
+    private static int tablebaseScore(int value, int ply) {
+        if (value == Tablebases.DRAW) return 0;
+        int dtm = value - 1;
+        return (dtm % 2 == 1) ? MATE - (ply + dtm) : -(MATE - (ply + dtm));
+    }
+
+    // Mate scores are stored relative to the node, not the root, so they stay valid
+    // when the same position is reached at a different ply.
+    private static int toTT(int score, int ply) {
+        if (score > MATE_BOUND) return score + ply;
+        if (score < -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTT(int score, int ply) {
+        if (score > MATE_BOUND) return score - ply;
+        if (score < -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    /**
+     * Tapered evaluation from the given perspective: material + piece-square sums kept by the
+     * board, plus the pawn structure from the pawn hash table and a bonus for passed pawns
+     * whose path is clear. Higher is better for {@code perspective}.
+     */
+    private int evaluate(Board b, PieceColor perspective) {
+        int entry = pawnTable.probe(b);
+        long occupied = b.occupancy();
+        // passers that can advance right now: stop square empty (depends on pieces, so not cached)
+        int free = Long.bitCount((pawnTable.passed(entry, PieceColor.WHITE) >>> 8) & ~occupied)
+                 - Long.bitCount((pawnTable.passed(entry, PieceColor.BLACK) << 8) & ~occupied);
+        int mg = pawnTable.mg(entry) + FREE_PASSER_MG * free;
+        int eg = pawnTable.eg(entry) + FREE_PASSER_EG * free;
+        int score = b.pstScore() + PieceSquareTables.taper(mg, eg, b.phase());
+        return (perspective == PieceColor.WHITE) ? score : -score;
+    }
+
+    /**
+     * Basic piece values in centipawns.
+     */
+    private int pieceVal(PieceType type) {
+        return switch (type) {
+            case QUEEN -> 900;
+            case ROOK -> 500;
+            case BISHOP, KNIGHT -> 300;
+            case PAWN -> 100;
+            case KING -> 0;
+        };
+    }
+
+    private PieceColor flip(PieceColor c) {
+        return (c == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+    }
+}
@@ -1,11 +1,18 @@
 package GUI;
 
 import java.awt.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.*;
 import logic.Board;
 import logic.GameSave;
 import logic.GameSession;
+import logic.Move;
 import logic.Rules;
+import logic.Zobrist;
 import objects.*;
 
 /**
@@ -17,6 +24,11 @@ import objects.*;
  *   summary:
  * - Provides hook points for an {@link AIOpponent} to make moves automatically.
  * - Set the AI instance and its color; when it's its turn, it will be asked for a move.
+ * - The AI searches on its own thread; its move is applied on the EDT only if the position
+ *   is still the one it searched. New Game, an Undo or Redo that changes the
+ *   position, and closing the window cancel it.
+ * - Ponder mode: while the human thinks, the AI searches the reply it expects; if that reply
+ *   is played the search continues as the AI's turn, otherwise it is dropped.
  * - Does not implement any AI logic here—only wiring, triggering, and UI integration.
  */
 public class SingleplayerAI extends JFrame {
@@ -31,6 +43,33 @@ public class SingleplayerAI extends JFrame {
      * Color controlled by the AI (WHITE/BLACK); null means AI disabled.
      */
     private PieceColor aiColor = null; // The side controlled by AI (WHITE/BLACK) or null when disabled
+    /**
+     * Dedicated thread for AI searches, so the EDT never waits for one.
+     */
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "AI-search");
+        t.setDaemon(true);
+        return t;
+    });
+    /**
+     * The running AI search, or null; only touched on the EDT.
+     */
+    private CompletableFuture<int[]> pendingSearch = null;
+    /**
+     * Search on the human's time (pondering), or null; only touched on the EDT.
+     * ponderKey is the position (AI to move) it assumes the human will reach.
+     */
+    private CompletableFuture<int[]> ponderSearch = null;
+    private long ponderKey;
+    /**
+     * Toolbar switch for ponder mode.
+     */
+    private JCheckBox ponderBox;
+    /**
+     * The line the AI expected after its last move (its principal variation), shown in the
+     * status bar; null when there is none.
+     */
+    private String aiLine = null;
 
     /**
      * Configure or disable the AI opponent.
@@ -39,6 +78,8 @@ public class SingleplayerAI extends JFrame {
      * @param color    Color the AI will play (ignored if opponent is null)
      */
     public void setAIOpponent(AIOpponent opponent, PieceColor color) {
+        cancelAISearch();
+        if (aiOpponent != null && aiOpponent != opponent) closeAI();
         this.aiOpponent = opponent;
         this.aiColor = opponent == null ? null : color;
         maybeMakeAIMove();
@@ -91,7 +132,7 @@ public class SingleplayerAI extends JFrame {
             () -> gameSession.getBoard(),      // Supplier: current board
             () -> gameSession.getCurrentTurn(), // Supplier: whose turn
             () -> gameSession.isGameOver(),     // Supplier: game over state
-            (sr, sc, er, ec) -> gameSession.playMove(sr, sc, er, ec), // Executor: perform move
+            (sr, sc, er, ec) -> !isAIThinking() && gameSession.playMove(sr, sc, er, ec), // Executor: perform move (not while the AI thinks)
             // Callback after a successful human move: update status, maybe trigger AI, repaint
             (sr, sc, er, ec) -> {
                 updateStatus();
@@ -135,6 +176,8 @@ public class SingleplayerAI extends JFrame {
         JButton newGameButton = new JButton("New Game");
         // Start a fresh game: reset session, clear selection, refresh, trigger AI if needed.
         newGameButton.addActionListener(e -> {
+            cancelAISearch();
+            clearAIMemory();
             gameSession.start();
             chessBoard.resetSelection();
             updateStatus();
@@ -147,9 +190,10 @@ public class SingleplayerAI extends JFrame {
         toolbar.addSeparator();
 
         JButton undoButton = new JButton("Undo");
-        // Undo last move; if successful refresh UI.
+        // Undo last move; if successful drop the AI's search of the old position and refresh UI.
         undoButton.addActionListener(e -> {
             if (gameSession.undo()) {
+                cancelAISearch();
                 chessBoard.resetSelection();
                 updateStatus();
                 chessBoard.repaint();
@@ -158,9 +202,10 @@ public class SingleplayerAI extends JFrame {
         toolbar.add(undoButton);
 
         JButton redoButton = new JButton("Redo");
-        // Redo a move; if successful refresh UI.
+        // Redo a move; if successful drop the AI's search of the old position and refresh UI.
         redoButton.addActionListener(e -> {
             if (gameSession.redo()) {
+                cancelAISearch();
                 chessBoard.resetSelection();
                 updateStatus();
                 chessBoard.repaint();
@@ -175,6 +220,16 @@ public class SingleplayerAI extends JFrame {
         saveButton.addActionListener(e -> saveGame());
         toolbar.add(saveButton);
 
+        toolbar.addSeparator();
+
+        ponderBox = new JCheckBox("Ponder", true);
+        ponderBox.setToolTipText("Let the AI think on your time about the reply it expects");
+        // Switching off drops a running ponder search at once.
+        ponderBox.addActionListener(e -> {
+            if (!ponderBox.isSelected()) cancelPonder();
+        });
+        toolbar.add(ponderBox);
+
         return toolbar;
     }
 
@@ -182,7 +237,10 @@ public class SingleplayerAI extends JFrame {
      * Update status label; if game over, show result dialog.
      */
     private void updateStatus() {
-        statusLabel.setText(StatusText.forSession(gameSession));
+        String status = StatusText.forSession(gameSession);
+        if (isAIThinking()) status += " (AI thinking...)";
+        else if (aiLine != null) status += "   AI: " + aiLine;
+        statusLabel.setText(status);
         if (gameSession.isGameOver()) {
             PieceColor currentPlayer = gameSession.getCurrentTurn();
             PieceColor opponent = (currentPlayer == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
@@ -239,6 +297,8 @@ public class SingleplayerAI extends JFrame {
      * Start a new session and trigger AI move if it plays first.
      */
     private void startNewGame() {
+        cancelAISearch();
+        clearAIMemory();
         gameSession.start();
         chessBoard.resetSelection();
         updateStatus();
@@ -253,6 +313,17 @@ public class SingleplayerAI extends JFrame {
         dispose();
     }
 
+    /**
+     * Closing the window (button, menu or frame) also ends any AI search and its thread.
+     */
+    @Override
+    public void dispose() {
+        cancelAISearch();
+        if (aiOpponent != null) closeAI();
+        searchExecutor.shutdown(); // the cancelled search stops by itself, then the thread ends
+        super.dispose();
+    }
+
     /**
      * Save current game: prompt for name; report success/failure.
      * 
@@ -279,26 +350,113 @@ public class SingleplayerAI extends JFrame {
     }
 
     /**
-     * If an AI is configured and it's AI's turn, query AI and make a move.
-     * This runs on the EDT synchronously; for heavy AIs, move to a worker thread.
-     *
-     * @param aiOpponent the AI opponent instance
-     * @param aiColor    the color the AI plays as
-     * 
+     * If an AI is configured and it's AI's turn, start its search on the search thread.
+     * The move is played on the EDT when the search completes, unless the position has
+     * changed in the meantime (the search was then cancelled or is stale).
      */
     private void maybeMakeAIMove() {
         if (aiOpponent == null || aiColor == null) return;
         if (gameSession.isGameOver()) return;
         if (gameSession.getCurrentTurn() != aiColor) return;
-
-        int[] mv = aiOpponent.chooseMove(gameSession.getBoard(), aiColor);
-        if (mv != null && mv.length == 4) {
-            boolean moved = gameSession.playMove(mv[0], mv[1], mv[2], mv[3]);
+        if (isAIThinking()) return;
+
+        long positionKey = gameSession.positionKey();
+        CompletableFuture<int[]> search;
+        if (ponderSearch != null && ponderKey == positionKey) {
+            // ponder hit: the search already under way becomes the AI's move search
+            search = ponderSearch;
+            ponderSearch = null;
+            aiOpponent.ponderHit();
+        } else {
+            cancelPonder();
+            search = aiOpponent.chooseMoveAsync(gameSession.getBoard(), aiColor, searchExecutor);
+        }
+        pendingSearch = search;
+        search.whenCompleteAsync((mv, error) -> {
+            if (pendingSearch != search) return; // cancelled or replaced meanwhile
+            pendingSearch = null;
+            boolean moved = false;
+            if (error != null) {
+                Throwable cause = (error instanceof CompletionException) ? error.getCause() : error;
+                if (!(cause instanceof CancellationException)) {
+                    System.err.println("AI search failed: " + cause);
+                }
+            } else if (gameSession.positionKey() == positionKey && !gameSession.isGameOver()
+                    && mv != null && mv.length == 4) {
+                moved = gameSession.playMove(mv[0], mv[1], mv[2], mv[3]);
+            }
             if (moved) {
+                aiLine = aiOpponent.lastPrincipalVariation();
                 updateStatus();
                 chessBoard.resetSelection();
-                chessBoard.repaint();
+                maybePonder();
+            } else {
+                statusLabel.setText(StatusText.forSession(gameSession)); // drop "AI thinking"
             }
-        }
+            chessBoard.repaint();
+        }, SwingUtilities::invokeLater);
+        updateStatus();
+    }
+
+    /**
+     * True from the start of an AI search until its move is applied; the human cannot move then.
+     */
+    private boolean isAIThinking() {
+        return pendingSearch != null;
+    }
+
+    /**
+     * Stop the running AI search (and any ponder search); its result will not be played.
+     */
+    private void cancelAISearch() {
+        CompletableFuture<int[]> search = pendingSearch;
+        pendingSearch = null;
+        aiLine = null;
+        if (search != null) search.cancel(false);
+        cancelPonder();
+    }
+
+    /**
+     * Tell the AI a new game starts. Runs on the search thread, so a search that was just
+     * cancelled has finished before the AI clears its tables.
+     */
+    private void clearAIMemory() {
+        AIOpponent ai = aiOpponent;
+        if (ai != null) searchExecutor.execute(ai::newGame);
+    }
+
+    /**
+     * Release the current AI's threads. Runs on the search thread, after a search that was
+     * just cancelled has finished.
+     */
+    private void closeAI() {
+        if (!searchExecutor.isShutdown()) searchExecutor.execute(aiOpponent::close); // dispose may run twice
+    }
+
+    /**
+     * After the AI has moved: if ponder mode is on and the AI can predict the human's reply,
+     * start searching the position after that reply.
+     */
+    private void maybePonder() {
+        if (ponderBox == null || !ponderBox.isSelected()) return;
+        if (aiOpponent == null || gameSession.isGameOver()) return;
+        PieceColor human = (aiColor == PieceColor.WHITE) ? PieceColor.BLACK : PieceColor.WHITE;
+        int predicted = aiOpponent.predictReply(gameSession.getBoard(), human);
+        if (predicted == Move.NONE) return;
+
+        Board position = gameSession.getBoard().deepCopy();
+        position.makeMove(predicted);
+        ponderKey = position.zobristKey() ^ Zobrist.sideKey(aiColor);
+        ponderSearch = aiOpponent.ponderAsync(position, aiColor, searchExecutor);
+    }
+
+    /**
+     * Ponder miss (or pondering switched off): drop the ponder search. What it stored in
+     * the AI's transposition table stays there.
+     */
+    private void cancelPonder() {
+        CompletableFuture<int[]> search = ponderSearch;
+        ponderSearch = null;
+        if (search != null) search.cancel(false);
     }
 }
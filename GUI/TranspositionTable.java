@@ -0,0 +1,119 @@
+package GUI;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table for the AI search, stored in one primitive {@code long[]}.
+ *
+ * Layout:
+ * - The table is split into 2-slot buckets; a slot is two longs: the 64-bit key XOR the
+ *   data word, and the packed data word. A probe checks both slots of the key's bucket.
+ * - Data word: bits 0-15 best move (compact {@link logic.Move}), 16-47 score,
+ *   48-55 depth, 56-57 bound type, 58-63 search age. A stored data word is never 0,
+ *   so 0 doubles as "miss".
+ *
+ * Thread safety: the table is shared by the Lazy SMP search threads without locks. Two
+ * threads writing the same slot at once can leave a key from one and data from the other;
+ * because the key is stored XOR the data, such a torn slot no longer matches any probe and
+ * simply reads as a miss. The statistics counters are not synchronized and only approximate
+ * when several threads search.
+ *
+ * Replacement: a slot holding the same key is always overwritten; otherwise the slot
+ * with the lowest (depth - 4 * age difference) is replaced, so entries from older
+ * searches and shallow entries are evicted first.
+ */
+final class TranspositionTable {
+    static final int EXACT = 1;
+    static final int LOWER = 2; // score is a lower bound (fail high)
+    static final int UPPER = 3; // score is an upper bound (fail low)
+
+    private final long[] table;
+    private final int bucketMask;
+    private int age;
+
+    // statistics (reset by resetStats)
+    private long probes, hits, stores;
+
+    TranspositionTable(int megabytes) {
+        long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+        long buckets = Long.highestOneBit(Math.max(1, bytes / 32)); // 32 bytes per bucket
+        buckets = Math.min(buckets, 1L << 24);                      // cap at 512 MB
+        this.table = new long[(int) buckets * 4];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /** Call once per root search; ages out entries from earlier searches. */
+    void newSearch() { age = (age + 1) & 63; }
+
+    void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    /** Packed data word for the key, or 0 on a miss. */
+    long probe(long key) {
+        probes++;
+        int base = bucket(key);
+        for (int i = base; i < base + 4; i += 2) {
+            long data = table[i + 1];
+            if (data != 0 && (table[i] ^ data) == key) {
+                hits++;
+                return data;
+            }
+        }
+        return 0L;
+    }
+
+    void store(long key, int move, int score, int depth, int bound) {
+        stores++;
+        int base = bucket(key);
+        int victim = base;
+        int victimPriority = Integer.MAX_VALUE;
+        for (int i = base; i < base + 4; i += 2) {
+            long data = table[i + 1];
+            if (data == 0 || (table[i] ^ data) == key) {
+                // keep an existing best move if the new result has none
+                if (data != 0 && move == 0) move = move(data);
+                victim = i;
+                break;
+            }
+            int ageDiff = (age - age(data)) & 63;
+            int priority = depth(data) - 4 * ageDiff;
+            if (priority < victimPriority) {
+                victimPriority = priority;
+                victim = i;
+            }
+        }
+        long data = pack(move, score, depth, bound, age);
+        table[victim] = key ^ data;
+        table[victim + 1] = data;
+    }
+
+    // ---------- data word accessors ----------
+    static int move(long data)  { return (int) (data & 0xFFFF); }
+    static int score(long data) { return (int) (data >> 16); }
+    static int depth(long data) { return (int) ((data >>> 48) & 0xFF); }
+    static int bound(long data) { return (int) ((data >>> 56) & 3); }
+    private static int age(long data) { return (int) (data >>> 58); }
+
+    private static long pack(int move, int score, int depth, int bound, int age) {
+        return (move & 0xFFFFL)
+             | ((score & 0xFFFFFFFFL) << 16)
+             | ((long) (Math.max(0, Math.min(depth, 255))) << 48)
+             | ((long) bound << 56)
+             | ((long) age << 58);
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) << 2;
+    }
+
+    // ---------- statistics ----------
+    long probes() { return probes; }
+    long hits()   { return hits; }
+    long stores() { return stores; }
+    void resetStats() { probes = hits = stores = 0; }
+
+    /** Table size in megabytes (as allocated). */
+    int sizeMegabytes() { return (int) ((table.length * 8L) >> 20); }
+}
@@ -39,6 +39,13 @@ echo ========================================
 echo       Build Successful!
 echo ========================================
 
+REM --- Endgame tablebases for the AI: generated once, takes a few seconds ---
+if not exist "tablebases\KBNK.tb" (
+    echo.
+    echo Generating endgame tablebases...
+    java -cp "%OUT%" logic.TablebaseGenerator tablebases
+)
+
 echo.
 echo Choose how to run the chess game:
 echo   1. Start Main Menu (GUI)